@@ -0,0 +1,234 @@
+package src.edu.kit.kastel.benchmark;
+
+import src.edu.kit.kastel.trafficsimulation.generator.NetworkGenerator;
+import src.edu.kit.kastel.trafficsimulation.io.SimulationFileAssembler;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.CrossingUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.CycleDetector;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.EventStreetUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.ParallelStreetUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.StreetUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.TickSimulator;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Regression check of the allocation-free tick. The bundled scenario {@value SCENARIO} and a generated grid are
+ * simulated by the sequential, event-driven, cycle-detecting and parallel street updaters. After a warm-up, the bytes
+ * allocated per thread are measured over {@value MEASURED_TICKS} ticks. The simulating thread of the sequential,
+ * event-driven and cycle-detecting updaters mustn't allocate at all, the threads of the parallel updater may allocate
+ * at most {@value MAX_PARALLEL_BYTES_PER_TICK} byte per tick on average, as the fork join pool allocates a little
+ * internally. The process exits with {@value EXIT_FAILURE} if a limit is exceeded.
+ * <p>
+ * Usage: {@code java src.edu.kit.kastel.benchmark.AllocationCheck}
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public final class AllocationCheck {
+    /**
+     * Error in case the class is tried to be instantiated
+     */
+    private static final String UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    /**
+     * Error in case the virtual machine doesn't measure the allocated bytes of threads
+     */
+    private static final String ERR_NOT_SUPPORTED = "Error: The allocated bytes of threads can't be measured.";
+    /**
+     * Error in case a scenario can't be loaded
+     */
+    private static final String ERR_NOT_LOADED = "Error: Scenario %s can't be loaded.%n";
+    /**
+     * Message of a measurement which is within its limit
+     */
+    private static final String MSG_PASSED = "%-9s %-16s %8d bytes in %d ticks (limit %d)%n";
+    /**
+     * Message of a measurement which exceeds its limit
+     */
+    private static final String MSG_FAILED = "%-9s %-16s %8d bytes in %d ticks (limit %d) FAILED%n";
+    /**
+     * Bundled scenario which is checked
+     */
+    private static final String SCENARIO = "files/advanced";
+    /**
+     * Number of cars of the generated grid
+     */
+    private static final int GRID_CARS_COUNT = 10_000;
+    /**
+     * Seed of the generated grid
+     */
+    private static final long SEED = 1;
+    /**
+     * Number of ticks simulated before the measurement
+     */
+    private static final long WARM_UP_TICKS = 20_000;
+    /**
+     * Number of measured ticks
+     */
+    private static final long MEASURED_TICKS = 10_000;
+    /**
+     * Number of ticks per simulate call, so the entry of a batch is measured as well
+     */
+    private static final long BATCH_TICKS = 1_000;
+    /**
+     * Number of threads of the parallel street updater
+     */
+    private static final int PARALLEL_THREADS_COUNT = 2;
+    /**
+     * Maximal average number of bytes the parallel street updater may allocate per tick
+     */
+    private static final long MAX_PARALLEL_BYTES_PER_TICK = 1;
+    /**
+     * Exit status in case a limit is exceeded
+     */
+    private static final int EXIT_FAILURE = 1;
+
+    /**
+     * Private constructor to avoid object generation.
+     */
+    private AllocationCheck() {
+        throw new IllegalStateException(UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Checks every street updater on the bundled scenario and on a generated grid
+     *
+     * @param args not used
+     * @throws IOException if the grid can't be generated
+     */
+    public static void main(String[] args) throws IOException {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean allocationBean)
+                || !allocationBean.isThreadAllocatedMemorySupported()) {
+            System.out.println(ERR_NOT_SUPPORTED);
+            System.exit(EXIT_FAILURE);
+            return;
+        }
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+        boolean passed = checkScenario(allocationBean, "advanced", Path.of(SCENARIO));
+        Path gridFolder = Files.createTempDirectory("traffic-allocation");
+        try {
+            new NetworkGenerator(SEED).generateGrid(gridFolder, GRID_CARS_COUNT);
+            passed &= checkScenario(allocationBean, "grid-1e4", gridFolder);
+        } finally {
+            deleteRecursively(gridFolder);
+        }
+        if (!passed) {
+            System.exit(EXIT_FAILURE);
+        }
+    }
+
+    /**
+     * Checks every street updater on a scenario
+     *
+     * @param allocationBean the bean measuring the allocated bytes of threads
+     * @param name           the name of the scenario
+     * @param scenario       the folder of the scenario
+     * @return true if every street updater stays within its limit
+     */
+    private static boolean checkScenario(com.sun.management.ThreadMXBean allocationBean, String name,
+                                         Path scenario) {
+        boolean passed = true;
+        passed &= checkUpdater(allocationBean, name, "sequential", scenario, new StreetUpdater(), false);
+        passed &= checkUpdater(allocationBean, name, "event", scenario, new EventStreetUpdater(), false);
+        passed &= checkUpdater(allocationBean, name, "cycle-detecting", scenario, new StreetUpdater(), true);
+        ParallelStreetUpdater parallelStreetUpdater = new ParallelStreetUpdater(PARALLEL_THREADS_COUNT);
+        try {
+            passed &= checkUpdater(allocationBean, name, "parallel", scenario, parallelStreetUpdater, false);
+        } finally {
+            parallelStreetUpdater.shutdown();
+        }
+        return passed;
+    }
+
+    /**
+     * Simulates a freshly loaded scenario with a street updater and checks the bytes allocated during the measured
+     * ticks: the simulating thread for the single-threaded updaters, every thread for the parallel updater
+     *
+     * @param allocationBean  the bean measuring the allocated bytes of threads
+     * @param name            the name of the scenario
+     * @param updaterName     the name of the street updater
+     * @param scenario        the folder of the scenario
+     * @param streetUpdater   new object that updates the streets
+     * @param detectingCycles true if cycles of the network's state are detected and skipped
+     * @return true if the allocated bytes are within the limit, false if not or the scenario can't be loaded
+     */
+    private static boolean checkUpdater(com.sun.management.ThreadMXBean allocationBean, String name,
+                                        String updaterName, Path scenario, StreetUpdater streetUpdater,
+                                        boolean detectingCycles) {
+        SimulationFileAssembler assembler = new SimulationFileAssembler();
+        if (!assembler.assembleSimulationFiles(scenario.toString())) {
+            System.out.printf(ERR_NOT_LOADED, scenario);
+            return false;
+        }
+        CrossingUpdater crossingUpdater = new CrossingUpdater();
+        crossingUpdater.setCrossingsArray(assembler.getCrossingsArray());
+        crossingUpdater.setTopology(assembler.getTopology());
+        streetUpdater.setCarStates(assembler.getCarStates());
+        streetUpdater.setStreetsArray(assembler.getStreetsArray());
+        streetUpdater.setCrossingUpdater(crossingUpdater);
+        streetUpdater.setLanesArray(assembler.getLanesArray());
+        streetUpdater.setTopology(assembler.getTopology());
+        TickSimulator tickSimulator = new TickSimulator(streetUpdater, crossingUpdater);
+        if (detectingCycles) {
+            tickSimulator.setCycleDetector(new CycleDetector(assembler.getCarStates(), crossingUpdater));
+        }
+        simulateBatches(tickSimulator, WARM_UP_TICKS);
+
+        boolean parallel = streetUpdater instanceof ParallelStreetUpdater;
+        // The ids and the array of the other threads are allocated before and after the measured ticks
+        long[] threadIDs = parallel ? allocationBean.getAllThreadIds() : new long[0];
+        long[] startThreadBytes = allocationBean.getThreadAllocatedBytes(threadIDs);
+        long startBytes = allocationBean.getCurrentThreadAllocatedBytes();
+        simulateBatches(tickSimulator, MEASURED_TICKS);
+        long allocatedBytes = allocationBean.getCurrentThreadAllocatedBytes() - startBytes;
+        long[] endThreadBytes = allocationBean.getThreadAllocatedBytes(threadIDs);
+        long currentThreadID = Thread.currentThread().getId();
+        for (int i = 0; i < threadIDs.length; i++) {
+            // Threads which ended in the meantime are reported as -1
+            if (threadIDs[i] != currentThreadID && startThreadBytes[i] >= 0 && endThreadBytes[i] >= 0) {
+                allocatedBytes += endThreadBytes[i] - startThreadBytes[i];
+            }
+        }
+
+        long maxBytes = parallel ? MAX_PARALLEL_BYTES_PER_TICK * MEASURED_TICKS : 0;
+        boolean passed = allocatedBytes <= maxBytes;
+        System.out.printf(Locale.ROOT, passed ? MSG_PASSED : MSG_FAILED, name, updaterName, allocatedBytes,
+                MEASURED_TICKS, maxBytes);
+        return passed;
+    }
+
+    /**
+     * Simulates ticks in batches of {@value BATCH_TICKS} ticks
+     *
+     * @param tickSimulator the tick simulator
+     * @param ticksCount    the number of ticks, a multiple of the batch size
+     */
+    private static void simulateBatches(TickSimulator tickSimulator, long ticksCount) {
+        for (long tick = 0; tick < ticksCount; tick += BATCH_TICKS) {
+            tickSimulator.simulateTicks(BATCH_TICKS);
+        }
+    }
+
+    /**
+     * Deletes a folder with all files in it
+     *
+     * @param folder the folder
+     * @throws IOException if a file can't be deleted
+     */
+    private static void deleteRecursively(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            List<Path> sortedPaths = paths.sorted(Comparator.reverseOrder()).toList();
+            for (Path path : sortedPaths) {
+                Files.delete(path);
+            }
+        }
+    }
+}
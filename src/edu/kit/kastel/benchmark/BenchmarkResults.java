@@ -0,0 +1,76 @@
+package src.edu.kit.kastel.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class collects the results of a benchmark run and writes them as JSON, so the results of different runs can
+ * be compared. Every result is one measured value of a benchmark on a scenario.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class BenchmarkResults {
+    /**
+     * Indentation of the results inside the array
+     */
+    private static final String INDENT = "    ";
+    /**
+     * Lines of the results formatted as JSON objects
+     */
+    private final List<String> results = new ArrayList<>();
+
+    /**
+     * Adds a measured value
+     *
+     * @param scenario   the name of the scenario
+     * @param carsCount  the number of cars of the scenario
+     * @param benchmark  the name of the benchmark
+     * @param metric     the name of the measured metric
+     * @param value      the measured value
+     * @param unit       the unit of the value
+     */
+    public void add(String scenario, int carsCount, String benchmark, String metric, double value, String unit) {
+        results.add(String.format(Locale.ROOT,
+                "{\"scenario\": %s, \"cars\": %d, \"benchmark\": %s, \"metric\": %s, \"value\": %.3f, \"unit\": %s}",
+                quote(scenario), carsCount, quote(benchmark), quote(metric), value, quote(unit)));
+        System.out.printf(Locale.ROOT, "%-24s %9d %-12s %-22s %16.3f %s%n",
+                scenario, carsCount, benchmark, metric, value, unit);
+    }
+
+    /**
+     * Writes the results together with a description of the environment into a JSON file
+     *
+     * @param filePath the path of the file
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path filePath) throws IOException {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"timestamp\": ").append(quote(Instant.now().toString())).append(",\n");
+        json.append("  \"javaVersion\": ").append(quote(System.getProperty("java.version"))).append(",\n");
+        json.append("  \"availableProcessors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+        json.append("  \"maxMemoryBytes\": ").append(Runtime.getRuntime().maxMemory()).append(",\n");
+        json.append("  \"results\": [\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append(INDENT).append(results.get(i)).append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("  ]\n}\n");
+        Files.writeString(filePath, json, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Quotes a text as JSON string
+     *
+     * @param text the text
+     * @return the quoted text with escaped quotes and backslashes
+     */
+    private static String quote(String text) {
+        return '"' + text.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+}
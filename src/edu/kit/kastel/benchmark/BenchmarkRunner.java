@@ -0,0 +1,301 @@
+package src.edu.kit.kastel.benchmark;
+
+import src.edu.kit.kastel.trafficsimulation.generator.NetworkGenerator;
+import src.edu.kit.kastel.trafficsimulation.io.SimulationFileAssembler;
+import src.edu.kit.kastel.trafficsimulation.metrics.SimulationStatistics;
+import src.edu.kit.kastel.trafficsimulation.metrics.TrajectoryRecorder;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Car;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarIdIndex;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.CrossingUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.EventStreetUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.StreetUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.TickSimulator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Entry point of the benchmarks of the simulation core. Every scenario folder in {@value SCENARIOS_FOLDER} and
+ * generated grids from 10^2 cars up to the specified power of ten are loaded, simulated by both engines and queried
+ * for car positions. Every measurement is preceded by a warm-up and repeated, the median is reported and all results
+ * are written into a JSON file.
+ * <p>
+ * Usage: {@code java src.edu.kit.kastel.benchmark.BenchmarkRunner <result.json> [largest exponent of the cars count]}
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public final class BenchmarkRunner {
+    /**
+     * Error in case the class is tried to be instantiated
+     */
+    private static final String UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    /**
+     * Message in case of wrong arguments
+     */
+    private static final String MSG_USAGE
+            = "Usage: BenchmarkRunner <result.json> [largest exponent of the generated cars count, default 6]";
+    /**
+     * Message in case a scenario can't be loaded
+     */
+    private static final String MSG_SKIPPED = "Skipped scenario which can't be loaded: ";
+    /**
+     * Message after the results have been written
+     */
+    private static final String MSG_WRITTEN = "Results written to ";
+    /**
+     * Folder containing the bundled scenarios
+     */
+    private static final String SCENARIOS_FOLDER = "files";
+    /**
+     * Exponent of the cars count of the smallest generated grid
+     */
+    private static final int MIN_EXPONENT = 2;
+    /**
+     * Default exponent of the cars count of the largest generated grid
+     */
+    private static final int DEFAULT_MAX_EXPONENT = 6;
+    /**
+     * Seed of the generated grids
+     */
+    private static final long SEED = 1;
+    /**
+     * Number of measured repetitions of every benchmark
+     */
+    private static final int ROUNDS = 5;
+    /**
+     * Number of car updates per round for which the number of ticks is chosen
+     */
+    private static final long CAR_UPDATES_PER_ROUND = 10_000_000;
+    /**
+     * Minimal number of ticks per round
+     */
+    private static final long MIN_TICKS = 10;
+    /**
+     * Maximal number of ticks per round
+     */
+    private static final long MAX_TICKS = 100_000;
+    /**
+     * Interval of the recorded car indices of the sampled trajectory benchmark
+     */
+    private static final int TRAJECTORY_SAMPLING_INTERVAL = 10;
+    /**
+     * Number of position queries per round
+     */
+    private static final int QUERIES_COUNT = 200_000;
+    /**
+     * Number of nanoseconds per second
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+    /**
+     * Number of nanoseconds per millisecond
+     */
+    private static final double NANOS_PER_MILLISECOND = 1e6;
+    /**
+     * Sum of the queried values of the last round, written so the queries can't be optimised away
+     */
+    private static volatile long querySink;
+
+    /**
+     * Private constructor to avoid object generation.
+     */
+    private BenchmarkRunner() {
+        throw new IllegalStateException(UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Runs every benchmark and writes the results
+     *
+     * @param args the path of the result file and optionally the largest exponent of the generated cars count
+     * @throws IOException if a scenario can't be generated or the results can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println(MSG_USAGE);
+            return;
+        }
+        int maxExponent = args.length == 2 ? Integer.parseInt(args[1]) : DEFAULT_MAX_EXPONENT;
+        BenchmarkResults results = new BenchmarkResults();
+        try (Stream<Path> scenarios = Files.list(Path.of(SCENARIOS_FOLDER))) {
+            for (Path scenario : scenarios.filter(Files::isDirectory).sorted().toList()) {
+                benchmarkScenario(results, scenario.toString(), scenario);
+            }
+        }
+        Path generatedFolder = Files.createTempDirectory("traffic-benchmark");
+        try {
+            for (int exponent = MIN_EXPONENT; exponent <= maxExponent; exponent++) {
+                int carsCount = (int) Math.pow(10, exponent);
+                Path scenario = generatedFolder.resolve("grid" + exponent);
+                new NetworkGenerator(SEED).generateGrid(scenario, carsCount);
+                benchmarkScenario(results, "grid-1e" + exponent, scenario);
+            }
+        } finally {
+            deleteRecursively(generatedFolder);
+        }
+        results.write(Path.of(args[0]));
+        System.out.println(MSG_WRITTEN + args[0]);
+    }
+
+    /**
+     * Benchmarks the loading, the simulation by both engines and the position queries of a scenario
+     *
+     * @param results  the results to which the measurements are added
+     * @param name     the name of the scenario
+     * @param scenario the folder of the scenario
+     * @throws IOException if a trajectory file can't be written
+     */
+    private static void benchmarkScenario(BenchmarkResults results, String name, Path scenario) throws IOException {
+        SimulationFileAssembler assembler = load(scenario);
+        if (assembler == null) {
+            System.out.println(MSG_SKIPPED + name);
+            return;
+        }
+        int carsCount = assembler.getCarStates().size();
+        double[] loadMillis = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long startNanos = System.nanoTime();
+            load(scenario);
+            loadMillis[i] = (System.nanoTime() - startNanos) / NANOS_PER_MILLISECOND;
+        }
+        results.add(name, carsCount, "load", "loadTime", median(loadMillis), "ms");
+        long ticksCount = Math.max(MIN_TICKS, Math.min(MAX_TICKS, CAR_UPDATES_PER_ROUND / Math.max(1, carsCount)));
+        for (boolean eventEngine : new boolean[] {false, true}) {
+            double ticksPerSecond = measureTicksPerSecond(scenario, eventEngine, ticksCount, null, 0);
+            String benchmark = eventEngine ? "tick-event" : "tick";
+            results.add(name, carsCount, benchmark, "ticksPerSecond", ticksPerSecond, "ticks/s");
+            results.add(name, carsCount, benchmark, "carUpdatesPerSecond", ticksPerSecond * carsCount, "cars/s");
+        }
+        // The overhead of the statistics is the difference to the tick engine without statistics
+        double statisticsTicksPerSecond
+                = measureTicksPerSecond(scenario, false, ticksCount, new SimulationStatistics(), 0);
+        results.add(name, carsCount, "tick-stats", "ticksPerSecond", statisticsTicksPerSecond, "ticks/s");
+        // The overhead of recording trajectories is the difference to the tick engine without recording
+        for (int samplingInterval : new int[] {1, TRAJECTORY_SAMPLING_INTERVAL}) {
+            double recordingTicksPerSecond = measureTicksPerSecond(scenario, false, ticksCount, null, samplingInterval);
+            results.add(name, carsCount, samplingInterval == 1 ? "tick-record" : "tick-record-sampled",
+                    "ticksPerSecond", recordingTicksPerSecond, "ticks/s");
+        }
+        results.add(name, carsCount, "position", "queryLatency", measureQueryNanos(assembler), "ns");
+    }
+
+    /**
+     * Loads a scenario without any cache
+     *
+     * @param scenario the folder of the scenario
+     * @return the assembler containing the loaded network or null if it can't be loaded
+     */
+    private static SimulationFileAssembler load(Path scenario) {
+        SimulationFileAssembler assembler = new SimulationFileAssembler();
+        return assembler.assembleSimulationFiles(scenario.toString()) ? assembler : null;
+    }
+
+    /**
+     * Measures the tick throughput of an engine on a freshly loaded scenario, the first round warms up
+     *
+     * @param scenario         the folder of the scenario
+     * @param eventEngine      true for the event-driven engine, false for the engine updating every car
+     * @param ticksCount       the number of ticks per round
+     * @param statistics       the statistics collected during the simulation, null to collect no statistics
+     * @param samplingInterval the interval of the car indices whose trajectories are recorded into a temporary file,
+     *                         0 to record no trajectories
+     * @return the median number of simulated ticks per second (including ticks skipped by the tick simulator)
+     * @throws IOException if the trajectory file can't be written
+     */
+    private static double measureTicksPerSecond(Path scenario, boolean eventEngine, long ticksCount,
+                                                SimulationStatistics statistics, int samplingInterval)
+            throws IOException {
+        SimulationFileAssembler assembler = load(scenario);
+        CrossingUpdater crossingUpdater = new CrossingUpdater();
+        crossingUpdater.setCrossingsArray(assembler.getCrossingsArray());
+        crossingUpdater.setTopology(assembler.getTopology());
+        StreetUpdater streetUpdater = eventEngine ? new EventStreetUpdater() : new StreetUpdater();
+        streetUpdater.setCarStates(assembler.getCarStates());
+        streetUpdater.setStreetsArray(assembler.getStreetsArray());
+        streetUpdater.setCrossingUpdater(crossingUpdater);
+        streetUpdater.setLanesArray(assembler.getLanesArray());
+        streetUpdater.setTopology(assembler.getTopology());
+        streetUpdater.setStatistics(statistics);
+        TickSimulator tickSimulator = new TickSimulator(streetUpdater, crossingUpdater);
+        tickSimulator.setStatistics(statistics);
+        Path trajectoryFile = samplingInterval == 0 ? null : Files.createTempFile("traffic-trajectory", ".bin");
+        try (TrajectoryRecorder trajectoryRecorder
+                     = trajectoryFile == null ? null : new TrajectoryRecorder(trajectoryFile, samplingInterval)) {
+            tickSimulator.setTrajectoryRecorder(trajectoryRecorder);
+            tickSimulator.simulateTicks(ticksCount);
+            double[] ticksPerSecond = new double[ROUNDS];
+            for (int i = 0; i < ROUNDS; i++) {
+                long startNanos = System.nanoTime();
+                tickSimulator.simulateTicks(ticksCount);
+                ticksPerSecond[i] = ticksCount * NANOS_PER_SECOND / (System.nanoTime() - startNanos);
+            }
+            return median(ticksPerSecond);
+        } finally {
+            if (trajectoryFile != null) {
+                Files.deleteIfExists(trajectoryFile);
+            }
+        }
+    }
+
+    /**
+     * Measures the latency of the lookup done by the position command for random existing car ids
+     *
+     * @param assembler the assembler containing the loaded network
+     * @return the median number of nanoseconds per query
+     */
+    private static double measureQueryNanos(SimulationFileAssembler assembler) {
+        CarStateStore carStates = assembler.getCarStates();
+        CarIdIndex carIdIndex = assembler.getCarIdIndex();
+        Car[] carsArray = assembler.getCarsArray();
+        Random random = new Random(SEED);
+        int[] queriedIDs = new int[QUERIES_COUNT];
+        for (int i = 0; i < QUERIES_COUNT; i++) {
+            queriedIDs[i] = carStates.getId(random.nextInt(carStates.size()));
+        }
+        double[] queryNanos = new double[ROUNDS + 1];
+        for (int round = 0; round <= ROUNDS; round++) {
+            long sum = 0;
+            long startNanos = System.nanoTime();
+            for (int carID : queriedIDs) {
+                Car car = carsArray[carIdIndex.findCarIndex(carID)];
+                sum += car.getCurrentStreet() + car.getCurrentSpeed() + car.getCurrentPosition();
+            }
+            queryNanos[round] = (double) (System.nanoTime() - startNanos) / QUERIES_COUNT;
+            querySink = sum;
+        }
+        return median(Arrays.copyOfRange(queryNanos, 1, queryNanos.length));
+    }
+
+    /**
+     * Finds the median of measured values
+     *
+     * @param values the measured values
+     * @return the median
+     */
+    private static double median(double[] values) {
+        double[] sortedValues = values.clone();
+        Arrays.sort(sortedValues);
+        return sortedValues[sortedValues.length / 2];
+    }
+
+    /**
+     * Deletes a folder with all files in it
+     *
+     * @param folder the folder
+     * @throws IOException if a file can't be deleted
+     */
+    private static void deleteRecursively(Path folder) throws IOException {
+        try (Stream<Path> paths = Files.walk(folder)) {
+            List<Path> sortedPaths = paths.sorted(Comparator.reverseOrder()).toList();
+            for (Path path : sortedPaths) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package src.edu.kit.kastel.benchmark;
+
+import src.edu.kit.kastel.trafficsimulation.generator.GeneratedTopology;
+import src.edu.kit.kastel.trafficsimulation.generator.NetworkGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Entry point of the network generator, which writes valid simulation files of large networks for stress and scaling
+ * runs. Every option is given as {@code name=value}, missing options keep their defaults.
+ * <p>
+ * Usage: {@code java src.edu.kit.kastel.benchmark.GeneratorRunner <folder> [topology=grid|star|ring|random_planar]
+ * [streets=<count>] [length=<10..1000>] [type2=<share>] [ticks=<t1,t2,...>] [carsPerStreet=<count>]
+ * [cars=<total count>] [seed=<seed>]}
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public final class GeneratorRunner {
+    /**
+     * Error in case the class is tried to be instantiated
+     */
+    private static final String UTILITY_CLASS_INSTANTIATION = "Utility class cannot be instantiated.";
+    /**
+     * Message in case of wrong arguments
+     */
+    private static final String MSG_USAGE = "Usage: GeneratorRunner <folder> [topology=grid|star|ring|random_planar]"
+            + " [streets=<count>] [length=<10..1000>] [type2=<share>] [ticks=<t1,t2,...>] [carsPerStreet=<count>]"
+            + " [cars=<total count>] [seed=<seed>]";
+    /**
+     * Message after the files have been generated
+     */
+    private static final String MSG_GENERATED = "Generated %s network in %s (%.3f s).%n";
+    /**
+     * Error prefix in case of invalid options
+     */
+    private static final String ERR_PREFIX = "Error: ";
+    /**
+     * Error in case of an unknown option
+     */
+    private static final String ERR_UNKNOWN_OPTION = "Unknown option ";
+    /**
+     * Separator between the name and the value of an option
+     */
+    private static final String OPTION_SEPARATOR = "=";
+    /**
+     * Separator between the ticks counts
+     */
+    private static final String TICKS_SEPARATOR = ",";
+    /**
+     * Default number of streets
+     */
+    private static final int DEFAULT_STREETS_COUNT = 1000;
+    /**
+     * Number of nanoseconds per second
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Private constructor to avoid object generation.
+     */
+    private GeneratorRunner() {
+        throw new IllegalStateException(UTILITY_CLASS_INSTANTIATION);
+    }
+
+    /**
+     * Generates a network according to the options
+     *
+     * @param args the path of the folder followed by the options
+     * @throws IOException if a file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println(MSG_USAGE);
+            return;
+        }
+        GeneratedTopology topology = GeneratedTopology.GRID;
+        int streetsCount = DEFAULT_STREETS_COUNT;
+        long seed = 1;
+        NetworkGenerator generator;
+        try {
+            for (String option : Arrays.copyOfRange(args, 1, args.length)) {
+                if (option.startsWith("seed" + OPTION_SEPARATOR)) {
+                    seed = Long.parseLong(value(option));
+                }
+            }
+            generator = new NetworkGenerator(seed);
+            for (String option : Arrays.copyOfRange(args, 1, args.length)) {
+                String name = option.split(OPTION_SEPARATOR, 2)[0];
+                switch (name) {
+                    case "topology" -> topology = GeneratedTopology.valueOf(value(option).toUpperCase(Locale.ROOT));
+                    case "streets" -> streetsCount = Integer.parseInt(value(option));
+                    case "length" -> generator.setStreetLength(Integer.parseInt(value(option)));
+                    case "type2" -> generator.setTypeTwoShare(Double.parseDouble(value(option)));
+                    case "ticks" -> generator.setTicksCounts(Arrays.stream(value(option).split(TICKS_SEPARATOR))
+                            .mapToInt(Integer::parseInt).toArray());
+                    case "carsPerStreet" -> generator.setCarsPerStreet(Integer.parseInt(value(option)));
+                    case "cars" -> generator.setCarsCount(Integer.parseInt(value(option)));
+                    case "seed" -> {
+                        // already applied to the generator
+                    }
+                    default -> throw new IllegalArgumentException(ERR_UNKNOWN_OPTION + name);
+                }
+            }
+            long startNanos = System.nanoTime();
+            generator.generate(Path.of(args[0]), topology, streetsCount);
+            System.out.printf(Locale.ROOT, MSG_GENERATED, topology.name().toLowerCase(Locale.ROOT), args[0],
+                    (System.nanoTime() - startNanos) / NANOS_PER_SECOND);
+        } catch (IllegalArgumentException e) {
+            // includes NumberFormatException and unknown topologies
+            System.out.println(ERR_PREFIX + e.getMessage());
+            System.out.println(MSG_USAGE);
+        }
+    }
+
+    /**
+     * Extracts the value of an option
+     *
+     * @param option the option in the form {@code name=value}
+     * @return the value of the option
+     */
+    private static String value(String option) {
+        String[] parts = option.split(OPTION_SEPARATOR, 2);
+        if (parts.length < 2) {
+            throw new IllegalArgumentException(MSG_USAGE);
+        }
+        return parts[1];
+    }
+}
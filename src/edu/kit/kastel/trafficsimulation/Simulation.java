@@ -1,13 +1,26 @@
 package src.edu.kit.kastel.trafficsimulation;
 
 
+import src.edu.kit.kastel.trafficsimulation.io.NetworkCache;
 import src.edu.kit.kastel.trafficsimulation.io.SimulationFileAssembler;
+import src.edu.kit.kastel.trafficsimulation.metrics.LatencyHistogram;
+import src.edu.kit.kastel.trafficsimulation.metrics.SimulationStatistics;
+import src.edu.kit.kastel.trafficsimulation.metrics.TickBenchmark;
+import src.edu.kit.kastel.trafficsimulation.metrics.TrajectoryRecorder;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Car;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarIdIndex;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
 import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.CrossingUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.CycleDetector;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.EventStreetUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.ParallelStreetUpdater;
 import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.StreetUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.TickSimulator;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
 import java.util.Scanner;
 
 /**
@@ -21,6 +34,14 @@ public class Simulation {
      * String to match the command "load"
      */
     private static final String INPUT_LOAD = "load";
+    /**
+     * String to match the command "reload"
+     */
+    private static final String INPUT_RELOAD = "reload";
+    /**
+     * String to match the command "compile"
+     */
+    private static final String INPUT_COMPILE = "compile";
     /**
      * String to match the command "simulate"
      */
@@ -29,10 +50,62 @@ public class Simulation {
      * String to match the command "load"
      */
     private static final String INPUT_POSITION = "position";
+    /**
+     * String to match the command "bench"
+     */
+    private static final String INPUT_BENCH = "bench";
+    /**
+     * String to match the command "stats"
+     */
+    private static final String INPUT_STATS = "stats";
+    /**
+     * String to reset the statistics
+     */
+    private static final String INPUT_RESET = "reset";
+    /**
+     * String to match the command "record"
+     */
+    private static final String INPUT_RECORD = "record";
+    /**
+     * String to match the command "threads"
+     */
+    private static final String INPUT_THREADS = "threads";
+    /**
+     * String to match the command "cycles"
+     */
+    private static final String INPUT_CYCLES = "cycles";
+    /**
+     * String to match the command "engine"
+     */
+    private static final String INPUT_ENGINE = "engine";
+    /**
+     * String to select the engine which updates every car in every tick
+     */
+    private static final String INPUT_TICK = "tick";
+    /**
+     * String to select the engine which only updates the woken cars
+     */
+    private static final String INPUT_EVENT = "event";
+    /**
+     * String to enable an option
+     */
+    private static final String INPUT_ON = "on";
+    /**
+     * String to disable an option
+     */
+    private static final String INPUT_OFF = "off";
     /**
      * String to match the command "load"
      */
     private static final String INPUT_QUIT = "quit";
+    /**
+     * String to match the command "timings"
+     */
+    private static final String INPUT_TIMINGS = "timings";
+    /**
+     * String to match the command "cache"
+     */
+    private static final String INPUT_CACHE = "cache";
     /**
      * String representing the beginning of every error message
      */
@@ -53,6 +126,26 @@ public class Simulation {
      * Error in case of negative integer input
      */
     private static final String ERR_EXPECTED_NOT_NEGATIVE_INTEGER = ERROR + "Expected not negative integer value.";
+    /**
+     * Error in case of a non-positive threads count
+     */
+    private static final String ERR_EXPECTED_POSITIVE_INTEGER = ERROR + "Expected positive integer value.";
+    /**
+     * Error in case of an option which is neither enabled nor disabled
+     */
+    private static final String ERR_EXPECTED_ON_OR_OFF = ERROR + "Expected on or off.";
+    /**
+     * Error in case of an argument of the stats command which is neither on, off nor reset
+     */
+    private static final String ERR_EXPECTED_STATS_OPTION = ERROR + "Expected on, off or reset.";
+    /**
+     * Error in case the trajectory file can't be written
+     */
+    private static final String ERR_TRAJECTORY_NOT_WRITTEN = ERROR + "Trajectory file can't be written.";
+    /**
+     * Error in case of an unknown engine
+     */
+    private static final String ERR_EXPECTED_ENGINE = ERROR + "Expected tick or event.";
     /**
      * Error in case of seeking a car nonexistent in the simulation
      */
@@ -77,6 +170,90 @@ public class Simulation {
      * Fourth part of message answering the position command
      */
     private static final String MSG_AND_POSITION = " and position ";
+    /**
+     * String separating the name of a loading stage from its duration
+     */
+    private static final String MSG_STAGE_SEPARATOR = ": ";
+    /**
+     * Format of the duration of a loading stage in milliseconds
+     */
+    private static final String MSG_MILLISECONDS_FORMAT = "%.3f ms";
+    /**
+     * Number of nanoseconds per millisecond
+     */
+    private static final double NANOS_PER_MILLISECOND = 1_000_000.0;
+    /**
+     * First part of message answering the cache command
+     */
+    private static final String MSG_CACHE_HITS = "Cache hits: ";
+    /**
+     * Second part of message answering the cache command
+     */
+    private static final String MSG_CACHE_MISSES = ", misses: ";
+    /**
+     * Third part of message answering the cache command
+     */
+    private static final String MSG_CACHED_NETWORKS = ", cached networks: ";
+    /**
+     * Format of the first line answering the bench command
+     */
+    private static final String MSG_BENCH_TICKS_FORMAT = "Ticks: %d in %.3f ms";
+    /**
+     * Format of the second line answering the bench command
+     */
+    private static final String MSG_BENCH_THROUGHPUT_FORMAT = "Ticks/s: %.1f, car updates/s: %.1f";
+    /**
+     * Format of the third line answering the bench command
+     */
+    private static final String MSG_BENCH_LATENCY_FORMAT = "Tick latency p50: %.3f us, p99: %.3f us";
+    /**
+     * Format of the fourth line answering the bench command
+     */
+    private static final String MSG_BENCH_MEMORY_FORMAT = "Allocated bytes: %s, GC: %d collections in %d ms";
+    /**
+     * Format of the first line answering the stats command
+     */
+    private static final String MSG_STATS_TICKS_FORMAT = "Ticks: %d, skipped: %d";
+    /**
+     * Format of the second line answering the stats command
+     */
+    private static final String MSG_STATS_CARS_FORMAT = "Cars moved: %d, overtook: %d, turned: %d, blocked at red: %d";
+    /**
+     * Format of the lines answering the stats command with the latencies of a phase
+     */
+    private static final String MSG_STATS_PHASE_FORMAT = "%s update p50: %.3f us, p99: %.3f us, max: %.3f us";
+    /**
+     * Name of the phase updating the streets
+     */
+    private static final String MSG_STREET_PHASE = "Street";
+    /**
+     * Name of the phase updating the crossings
+     */
+    private static final String MSG_CROSSING_PHASE = "Crossing";
+    /**
+     * String printed instead of a measurement which isn't supported
+     */
+    private static final String MSG_NOT_SUPPORTED = "unknown";
+    /**
+     * Number of nanoseconds per microsecond
+     */
+    private static final double NANOS_PER_MICROSECOND = 1_000.0;
+    /**
+     * Number of nanoseconds per second
+     */
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    /**
+     * Quantile of the median tick latency
+     */
+    private static final double MEDIAN = 0.5;
+    /**
+     * Quantile of the tick latency exceeded by one in a hundred ticks
+     */
+    private static final double PERCENTILE_99 = 0.99;
+    /**
+     * Share of the maximal heap size which the cached networks may occupy (one in the specified number)
+     */
+    private static final int CACHE_MEMORY_FRACTION = 4;
     /**
      * Boolean representing the state of the simulation
      */
@@ -85,22 +262,60 @@ public class Simulation {
      * Boolean representing the state of the current network
      */
     private boolean networkExists;
+    /**
+     * Cache of the loaded networks which hands out unchanged networks without reading their files
+     */
+    private final NetworkCache networkCache
+            = new NetworkCache(Runtime.getRuntime().maxMemory() / CACHE_MEMORY_FRACTION);
     /**
      * Object that loads all simulation files, converts them and checks them for errors
      */
-    private final SimulationFileAssembler simulationFileAssembler = new SimulationFileAssembler();
+    private final SimulationFileAssembler simulationFileAssembler
+            = new SimulationFileAssembler(networkCache);
     /**
      * Object that updates the state of the streets
      */
-    private final StreetUpdater streetUpdater = new StreetUpdater();
+    private StreetUpdater streetUpdater = new StreetUpdater();
+    /**
+     * Integer representing the number of threads updating the streets with the tick engine
+     */
+    private int threadsCount = 1;
+    /**
+     * Boolean representing if the event-driven engine updates the streets
+     */
+    private boolean eventEngineEnabled;
     /**
      * Object that updates the state of the crossings
      */
     private final CrossingUpdater crossingUpdater = new CrossingUpdater();
+    /**
+     * Object that simulates ticks by calling the updaters
+     */
+    private final TickSimulator tickSimulator = new TickSimulator(streetUpdater, crossingUpdater);
+    /**
+     * Boolean representing if cycles in the network's state are detected
+     */
+    private boolean cycleDetectionEnabled;
+    /**
+     * Statistics collected while ticks are simulated
+     */
+    private final SimulationStatistics statistics = new SimulationStatistics();
+    /**
+     * Boolean representing if statistics are collected
+     */
+    private boolean statisticsEnabled;
+    /**
+     * Recorder of the cars' trajectories, null if no trajectories are recorded
+     */
+    private TrajectoryRecorder trajectoryRecorder;
     /**
      * Array containing all cars sorted by id in the current network
      */
     private Car[] carsArray;
+    /**
+     * Index mapping the id of every car to its index in the cars array
+     */
+    private CarIdIndex carIdIndex;
     /**
      * Array containing all streets sorted by id in the current network
      */
@@ -135,13 +350,32 @@ private void handleLine(String userInput) {
         if (splitInput.length == 2) {
             switch (splitInput[0]) {
                 case INPUT_LOAD -> loadSimulationFiles(splitInput[1]);
+                case INPUT_RELOAD -> reloadCars(splitInput[1]);
+                case INPUT_COMPILE -> compileSimulationFiles(splitInput[1]);
                 case INPUT_SIMULATE -> simulateTicks(splitInput[1]);
                 case INPUT_POSITION -> printCarPosition(splitInput[1]);
+                case INPUT_THREADS -> setThreadsCount(splitInput[1]);
+                case INPUT_CYCLES -> setCycleDetection(splitInput[1]);
+                case INPUT_ENGINE -> setEngine(splitInput[1]);
+                case INPUT_BENCH -> benchmarkTicks(splitInput[1], "0");
+                case INPUT_STATS -> setStatistics(splitInput[1]);
+                case INPUT_RECORD -> recordTrajectories(splitInput[1], "1");
                 default -> System.out.println(ERR_INVALID_COMMAND);
             }
+        } else if (splitInput.length == 3 && splitInput[0].equals(INPUT_BENCH)) {
+            benchmarkTicks(splitInput[1], splitInput[2]);
+        } else if (splitInput.length == 3 && splitInput[0].equals(INPUT_RECORD)) {
+            recordTrajectories(splitInput[1], splitInput[2]);
         } else if (splitInput.length == 1) {
             if (splitInput[0].equals(INPUT_QUIT)) {
+                stopRecording();
                 this.isRunning = false;
+            } else if (splitInput[0].equals(INPUT_TIMINGS)) {
+                printLoadTimings();
+            } else if (splitInput[0].equals(INPUT_CACHE)) {
+                printCacheStatistics();
+            } else if (splitInput[0].equals(INPUT_STATS)) {
+                printStatistics();
             } else {
                 System.out.println(ERR_INVALID_COMMAND);
             }
@@ -157,10 +391,231 @@ private void handleLine(String userInput) {
      */
     private void loadSimulationFiles(String filePath) {
         if (simulationFileAssembler.assembleSimulationFiles(filePath)) {
+            // The recording belongs to the replaced network and ends with it
+            stopRecording();
             this.carsArray = simulationFileAssembler.getCarsArray();
+            this.carIdIndex = simulationFileAssembler.getCarIdIndex();
             this.streetsArray = simulationFileAssembler.getStreetsArray();
             this.crossingsArray = simulationFileAssembler.getCrossingsArray();
+            initializeStreetUpdater();
+            crossingUpdater.setCrossingsArray(crossingsArray);
+            crossingUpdater.setTopology(simulationFileAssembler.getTopology());
+            crossingUpdater.setCurrentTick(0);
             this.networkExists = true;
+            initializeCycleDetector();
+        }
+    }
+
+    /**
+     * Replaces the cars of the loaded network by the cars in the specified folder and restarts the simulation, the
+     * streets and crossings stay loaded
+     *
+     * @param filePath the path to the folder of the cars' file
+     */
+    private void reloadCars(String filePath) {
+        if (networkCheck() || !simulationFileAssembler.reassembleCars(filePath)) {
+            return;
+        }
+        // The recording belongs to the replaced cars and ends with them
+        stopRecording();
+        this.carsArray = simulationFileAssembler.getCarsArray();
+        this.carIdIndex = simulationFileAssembler.getCarIdIndex();
+        initializeStreetUpdater();
+        crossingUpdater.setCurrentTick(0);
+        initializeCycleDetector();
+    }
+
+    /**
+     * Compiles the simulation files in the specified folder into a binary file which is loaded instead of them and
+     * prints out "READY" if it was written, the currently loaded network stays unchanged
+     *
+     * @param filePath the path to the files' folder
+     */
+    private void compileSimulationFiles(String filePath) {
+        if (new SimulationFileAssembler().compileSimulationFiles(filePath)) {
+            System.out.println(MSG_READY);
+        }
+    }
+
+    /**
+     * Passes the loaded network to the street updater
+     */
+    private void initializeStreetUpdater() {
+        streetUpdater.setCarStates(simulationFileAssembler.getCarStates());
+        streetUpdater.setStreetsArray(streetsArray);
+        streetUpdater.setCrossingUpdater(crossingUpdater);
+        streetUpdater.setLanesArray(simulationFileAssembler.getLanesArray());
+        streetUpdater.setTopology(simulationFileAssembler.getTopology());
+    }
+
+    /**
+     * Sets the number of threads updating the streets (1 for the sequential street updater)
+     *
+     * @param stringThreadsCount number of threads passed in by the user
+     */
+    private void setThreadsCount(String stringThreadsCount) {
+        if (integerCheck(stringThreadsCount)) {
+            return;
+        }
+        int integerThreadsCount = Integer.parseInt(stringThreadsCount);
+        if (integerThreadsCount == 0) {
+            System.out.println(ERR_EXPECTED_POSITIVE_INTEGER);
+            return;
+        }
+        this.threadsCount = integerThreadsCount;
+        replaceStreetUpdater();
+    }
+
+    /**
+     * Selects the engine updating the streets: "tick" updates every car in every tick, "event" only updates the cars
+     * which aren't sleeping at a crossing (the event engine always runs on a single thread)
+     *
+     * @param stringEngine the engine passed in by the user
+     */
+    private void setEngine(String stringEngine) {
+        if (stringEngine.equals(INPUT_TICK)) {
+            this.eventEngineEnabled = false;
+        } else if (stringEngine.equals(INPUT_EVENT)) {
+            this.eventEngineEnabled = true;
+        } else {
+            System.out.println(ERR_EXPECTED_ENGINE);
+            return;
+        }
+        replaceStreetUpdater();
+    }
+
+    /**
+     * Replaces the street updater according to the selected engine and number of threads
+     */
+    private void replaceStreetUpdater() {
+        if (streetUpdater instanceof ParallelStreetUpdater parallelStreetUpdater) {
+            parallelStreetUpdater.shutdown();
+        }
+        this.streetUpdater = createStreetUpdater();
+        tickSimulator.setStreetUpdater(streetUpdater);
+        applyStatistics();
+        if (networkExists) {
+            initializeStreetUpdater();
+        }
+    }
+
+    /**
+     * Creates a street updater according to the selected engine and number of threads
+     *
+     * @return the new street updater
+     */
+    private StreetUpdater createStreetUpdater() {
+        if (eventEngineEnabled) {
+            return new EventStreetUpdater();
+        } else if (threadsCount == 1) {
+            return new StreetUpdater();
+        }
+        return new ParallelStreetUpdater(threadsCount);
+    }
+
+    /**
+     * Enables or disables the detection of cycles in the network's state
+     *
+     * @param stringOption the option passed in by the user
+     */
+    private void setCycleDetection(String stringOption) {
+        if (stringOption.equals(INPUT_ON)) {
+            this.cycleDetectionEnabled = true;
+        } else if (stringOption.equals(INPUT_OFF)) {
+            this.cycleDetectionEnabled = false;
+        } else {
+            System.out.println(ERR_EXPECTED_ON_OR_OFF);
+            return;
+        }
+        if (networkExists) {
+            initializeCycleDetector();
+        }
+    }
+
+    /**
+     * Enables, disables or resets the statistics collected while ticks are simulated
+     *
+     * @param stringOption the option passed in by the user
+     */
+    private void setStatistics(String stringOption) {
+        if (stringOption.equals(INPUT_ON)) {
+            this.statisticsEnabled = true;
+        } else if (stringOption.equals(INPUT_OFF)) {
+            this.statisticsEnabled = false;
+        } else if (stringOption.equals(INPUT_RESET)) {
+            statistics.reset();
+        } else {
+            System.out.println(ERR_EXPECTED_STATS_OPTION);
+            return;
+        }
+        applyStatistics();
+    }
+
+    /**
+     * Passes the statistics to the updaters if statistics are enabled
+     */
+    private void applyStatistics() {
+        SimulationStatistics enabledStatistics = statisticsEnabled ? statistics : null;
+        streetUpdater.setStatistics(enabledStatistics);
+        tickSimulator.setStatistics(enabledStatistics);
+    }
+
+    /**
+     * Starts recording the state of every car (or of every car whose index is a multiple of the sampling interval)
+     * after every updated tick into the specified file, beginning with the current state, or stops the recording. The
+     * recording also stops when a network is loaded or the cars are reloaded.
+     *
+     * @param stringOption           the path of the trajectory file or "off" to stop the recording
+     * @param stringSamplingInterval the interval of the recorded car indices passed in by the user
+     */
+    private void recordTrajectories(String stringOption, String stringSamplingInterval) {
+        if (stringOption.equals(INPUT_OFF)) {
+            stopRecording();
+            return;
+        }
+        if (networkCheck() || integerCheck(stringSamplingInterval)) {
+            return;
+        }
+        int samplingInterval = Integer.parseInt(stringSamplingInterval);
+        if (samplingInterval == 0) {
+            System.out.println(ERR_EXPECTED_POSITIVE_INTEGER);
+            return;
+        }
+        stopRecording();
+        try {
+            this.trajectoryRecorder = new TrajectoryRecorder(Path.of(stringOption), samplingInterval);
+        } catch (IOException | RuntimeException e) {
+            System.out.println(ERR_TRAJECTORY_NOT_WRITTEN);
+            return;
+        }
+        trajectoryRecorder.record(crossingUpdater.getCurrentTick(), simulationFileAssembler.getCarStates());
+        tickSimulator.setTrajectoryRecorder(trajectoryRecorder);
+    }
+
+    /**
+     * Stops the recording of the trajectories and writes the remaining states into the file
+     */
+    private void stopRecording() {
+        if (trajectoryRecorder == null) {
+            return;
+        }
+        tickSimulator.setTrajectoryRecorder(null);
+        try {
+            trajectoryRecorder.close();
+        } catch (IOException e) {
+            System.out.println(ERR_TRAJECTORY_NOT_WRITTEN);
+        }
+        this.trajectoryRecorder = null;
+    }
+
+    /**
+     * Passes a new cycle detector for the loaded network to the tick simulator if cycle detection is enabled
+     */
+    private void initializeCycleDetector() {
+        if (cycleDetectionEnabled) {
+            tickSimulator.setCycleDetector(new CycleDetector(simulationFileAssembler.getCarStates(), crossingUpdater));
+        } else {
+            tickSimulator.setCycleDetector(null);
         }
     }
 
@@ -170,23 +625,53 @@ private void loadSimulationFiles(String filePath) {
      * @param stringTicksCount number of ticks passed in by the user
      */
     private void simulateTicks(String stringTicksCount) {
-        if (networkCheck() || integerCheck(stringTicksCount)) {
+        if (networkCheck() || longCheck(stringTicksCount)) {
             return;
         }
-        int integerTicksCount = Integer.parseInt(stringTicksCount);
-        for (int i = 0; i < integerTicksCount; i++) {
-            streetUpdater.setCarsArray(carsArray);
-            streetUpdater.setStreetsArray(streetsArray);
-            streetUpdater.setCrossingsArray(crossingsArray);
-            streetUpdater.updateStreets();
-            this.carsArray = streetUpdater.getCarsArray();
-            crossingUpdater.setCrossingsArray(crossingsArray);
-            crossingUpdater.updateCrossings();
-            this.crossingsArray = crossingUpdater.getCrossingsArray();
-        }
+        tickSimulator.simulateTicks(Long.parseLong(stringTicksCount));
         System.out.println(MSG_READY);
     }
 
+    /**
+     * Simulates the specified number of ticks on a copy of the loaded network with the selected engine and prints
+     * out the throughput, the tick latencies, the allocated memory and the garbage collections, the loaded network
+     * stays unchanged
+     *
+     * @param stringTicksCount       number of measured ticks passed in by the user
+     * @param stringWarmUpTicksCount number of ticks simulated before the measurement passed in by the user
+     */
+    private void benchmarkTicks(String stringTicksCount, String stringWarmUpTicksCount) {
+        if (networkCheck() || longCheck(stringTicksCount) || longCheck(stringWarmUpTicksCount)) {
+            return;
+        }
+        TickBenchmark tickBenchmark = new TickBenchmark(simulationFileAssembler.getCarStates(),
+                simulationFileAssembler.getLanesArray(), streetsArray, crossingsArray,
+                simulationFileAssembler.getTopology(), crossingUpdater.getCurrentTick());
+        StreetUpdater benchmarkStreetUpdater = createStreetUpdater();
+        try {
+            tickBenchmark.run(benchmarkStreetUpdater, Long.parseLong(stringWarmUpTicksCount),
+                    Long.parseLong(stringTicksCount));
+        } finally {
+            if (benchmarkStreetUpdater instanceof ParallelStreetUpdater parallelStreetUpdater) {
+                parallelStreetUpdater.shutdown();
+            }
+        }
+        LatencyHistogram tickLatencies = tickBenchmark.getTickLatencies();
+        double seconds = tickBenchmark.getElapsedNanos() / NANOS_PER_SECOND;
+        double ticksPerSecond = seconds > 0 ? tickLatencies.getCount() / seconds : 0;
+        System.out.println(String.format(Locale.ROOT, MSG_BENCH_TICKS_FORMAT, tickLatencies.getCount(),
+                tickBenchmark.getElapsedNanos() / NANOS_PER_MILLISECOND));
+        System.out.println(String.format(Locale.ROOT, MSG_BENCH_THROUGHPUT_FORMAT, ticksPerSecond,
+                ticksPerSecond * tickBenchmark.getCarsCount()));
+        System.out.println(String.format(Locale.ROOT, MSG_BENCH_LATENCY_FORMAT,
+                tickLatencies.getQuantile(MEDIAN) / NANOS_PER_MICROSECOND,
+                tickLatencies.getQuantile(PERCENTILE_99) / NANOS_PER_MICROSECOND));
+        String allocatedBytes = tickBenchmark.getAllocatedBytes() == TickBenchmark.NOT_SUPPORTED
+                ? MSG_NOT_SUPPORTED : String.valueOf(tickBenchmark.getAllocatedBytes());
+        System.out.println(String.format(Locale.ROOT, MSG_BENCH_MEMORY_FORMAT, allocatedBytes,
+                tickBenchmark.getGcCount(), tickBenchmark.getGcMillis()));
+    }
+
     /**
      * Prints out the id, position, street and speed of a car with specified id
      *
@@ -197,14 +682,65 @@ private void printCarPosition(String stringCarID) {
             return;
         }
         int integerCarID = Integer.parseInt(stringCarID);
-        for (Car car : carsArray) {
-            if (car.getId() == integerCarID) {
-                System.out.println(MSG_CAR + car.getId() + MSG_ON_STREET + car.getCurrentStreet() + MSG_WITH_SPEED
-                        + car.getCurrentSpeed() + MSG_AND_POSITION + car.getCurrentPosition());
-                return;
+        int carIndex = carIdIndex.findCarIndex(integerCarID);
+        if (carIndex == CarIdIndex.NONE) {
+            System.out.println(ERR_NO_SUCH_CAR + integerCarID + DOT);
+            return;
+        }
+        Car car = carsArray[carIndex];
+        System.out.println(MSG_CAR + car.getId() + MSG_ON_STREET + car.getCurrentStreet() + MSG_WITH_SPEED
+                + car.getCurrentSpeed() + MSG_AND_POSITION + car.getCurrentPosition());
+    }
+
+    /**
+     * Prints out the duration of every stage which ran during the last successful loading
+     */
+    private void printLoadTimings() {
+        if (networkCheck()) {
+            return;
+        }
+        String[] stageNames = simulationFileAssembler.getStageNames();
+        long[] stageNanos = simulationFileAssembler.getStageNanos();
+        for (int i = 0; i < stageNames.length; i++) {
+            if (stageNanos[i] >= 0) {
+                System.out.println(stageNames[i] + MSG_STAGE_SEPARATOR
+                        + String.format(Locale.ROOT, MSG_MILLISECONDS_FORMAT, stageNanos[i] / NANOS_PER_MILLISECOND));
             }
         }
-        System.out.println(ERR_NO_SUCH_CAR + integerCarID + DOT);
+    }
+
+    /**
+     * Prints out the number of loads answered by the network cache, the number of loads which read the files and the
+     * number of cached networks
+     */
+    private void printCacheStatistics() {
+        System.out.println(MSG_CACHE_HITS + networkCache.getHitsCount() + MSG_CACHE_MISSES
+                + networkCache.getMissesCount() + MSG_CACHED_NETWORKS + networkCache.getNetworksCount());
+    }
+
+    /**
+     * Prints out the statistics collected since they were last reset
+     */
+    private void printStatistics() {
+        System.out.println(String.format(Locale.ROOT, MSG_STATS_TICKS_FORMAT,
+                statistics.getStreetUpdateLatencies().getCount(), statistics.getTicksSkipped()));
+        System.out.println(String.format(Locale.ROOT, MSG_STATS_CARS_FORMAT, statistics.getCarsMoved(),
+                statistics.getCarsOvertook(), statistics.getCarsTurned(), statistics.getCarsBlockedAtRed()));
+        printPhaseLatencies(MSG_STREET_PHASE, statistics.getStreetUpdateLatencies());
+        printPhaseLatencies(MSG_CROSSING_PHASE, statistics.getCrossingUpdateLatencies());
+    }
+
+    /**
+     * Prints out the median, 99th percentile and maximal latency of a phase of the ticks
+     *
+     * @param phaseName the name of the phase
+     * @param latencies the latencies of the phase
+     */
+    private void printPhaseLatencies(String phaseName, LatencyHistogram latencies) {
+        System.out.println(String.format(Locale.ROOT, MSG_STATS_PHASE_FORMAT, phaseName,
+                latencies.getQuantile(MEDIAN) / NANOS_PER_MICROSECOND,
+                latencies.getQuantile(PERCENTILE_99) / NANOS_PER_MICROSECOND,
+                latencies.getMaxNanos() / NANOS_PER_MICROSECOND));
     }
 
     /**
@@ -228,8 +764,32 @@ private boolean networkCheck() {
      * @return false if the integer can be parsed
      */
     private boolean integerCheck(String stringInteger) {
+        return longCheck(stringInteger) || integerOverflowCheck(stringInteger);
+    }
+
+    /**
+     * Checks if an integer can't be parsed from a string which contains a not negative long
+     *
+     * @param stringInteger the string from which the integer is parsed
+     * @return false if the integer can be parsed
+     */
+    private boolean integerOverflowCheck(String stringInteger) {
+        if (Long.parseLong(stringInteger) > Integer.MAX_VALUE) {
+            System.out.println(ERR_EXPECTED_NOT_NEGATIVE_INTEGER);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a not negative long can be parsed from a string
+     *
+     * @param stringLong the string from which the long is parsed
+     * @return false if the long can be parsed
+     */
+    private boolean longCheck(String stringLong) {
         try {
-            if (Integer.parseInt(stringInteger) < 0) {
+            if (Long.parseLong(stringLong) < 0) {
                 System.out.println(ERR_EXPECTED_NOT_NEGATIVE_INTEGER);
                 return true;
             }
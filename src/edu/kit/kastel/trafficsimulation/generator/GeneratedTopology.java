@@ -0,0 +1,28 @@
+package src.edu.kit.kastel.trafficsimulation.generator;
+
+/**
+ * This enum contains the topologies of the networks which can be generated. In every topology each crossing has one
+ * to four incoming and one to four outgoing streets.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public enum GeneratedTopology {
+    /**
+     * Grid on a torus, every crossing has one street to its right and one below it
+     */
+    GRID,
+    /**
+     * Central crossing with four arms of crossings, the arms are connected in both directions
+     */
+    STAR,
+    /**
+     * Ring of crossings connected in both directions
+     */
+    RING,
+    /**
+     * Random planar network: a random spanning tree of a lattice with random further lattice edges, every edge is
+     * connected in both directions
+     */
+    RANDOM_PLANAR
+}
@@ -0,0 +1,407 @@
+package src.edu.kit.kastel.trafficsimulation.generator;
+
+import src.edu.kit.kastel.trafficsimulation.io.SimulationFileLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class generates valid simulation files of large networks for stress and scaling runs. The streets of the
+ * chosen topology are generated first, then the crossings get random ticks counts and the cars are distributed
+ * evenly over the streets. Every generated network keeps the limits of the simulation file checker.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class NetworkGenerator {
+    /**
+     * Minimal length of a street
+     */
+    public static final int MIN_STREET_LENGTH = 10;
+    /**
+     * Maximal length of a street
+     */
+    public static final int MAX_STREET_LENGTH = 1000;
+    /**
+     * Minimal ticks count of a crossing with traffic lights
+     */
+    private static final int MIN_TICKS_COUNT = 3;
+    /**
+     * Maximal ticks count of a crossing with traffic lights
+     */
+    private static final int MAX_TICKS_COUNT = 10;
+    /**
+     * Number of arms of a star (the central crossing has one incoming and one outgoing street per arm)
+     */
+    private static final int STAR_ARMS_COUNT = 4;
+    /**
+     * Probability of a lattice edge outside the spanning tree to be part of a random planar network
+     */
+    private static final double EXTRA_EDGE_PROBABILITY = 0.5;
+    /**
+     * Error in case of a street length outside of the valid range
+     */
+    private static final String ERR_STREET_LENGTH = "Street length must be between 10 and 1000.";
+    /**
+     * Error in case of a share outside of the range from 0 to 1
+     */
+    private static final String ERR_TYPE_TWO_SHARE = "Share of type 2 streets must be between 0 and 1.";
+    /**
+     * Error in case of an invalid ticks count
+     */
+    private static final String ERR_TICKS_COUNT = "Ticks counts must be 0 or between 3 and 10.";
+    /**
+     * Error in case of more cars than fit onto the streets
+     */
+    private static final String ERR_TOO_MANY_CARS = "Too many cars for the streets' length.";
+    /**
+     * Error in case of a negative count
+     */
+    private static final String ERR_NEGATIVE_COUNT = "Counts must not be negative.";
+    /**
+     * Generator of the random properties of the traffic objects
+     */
+    private final Random random;
+    /**
+     * Length of every generated street
+     */
+    private int streetLength = MAX_STREET_LENGTH;
+    /**
+     * Share of the streets with two lanes (type 2)
+     */
+    private double typeTwoShare = 0.5;
+    /**
+     * Possible ticks counts of the generated crossings (0 for crossings without traffic lights)
+     */
+    private int[] ticksCounts = {0, 3, 5, 10};
+    /**
+     * Number of cars per street, used if no total number of cars is set
+     */
+    private int carsPerStreet = 20;
+    /**
+     * Total number of cars distributed evenly over the streets (negative to use the cars per street)
+     */
+    private int carsCount = -1;
+    /**
+     * Start crossings of the generated streets
+     */
+    private final List<Integer> streetStarts = new ArrayList<>();
+    /**
+     * End crossings of the generated streets
+     */
+    private final List<Integer> streetEnds = new ArrayList<>();
+
+    /**
+     * Constructor of the network generator
+     *
+     * @param seed the seed of the random properties, equal seeds and settings generate equal networks
+     */
+    public NetworkGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the simulation files of a network with about the specified number of streets (the exact number
+     * depends on the topology)
+     *
+     * @param folderPath   the path of the folder into which the files are written, created if it doesn't exist
+     * @param topology     the topology of the network
+     * @param streetsCount the approximate number of streets
+     * @throws IOException if a file can't be written
+     */
+    public void generate(Path folderPath, GeneratedTopology topology, int streetsCount) throws IOException {
+        if (streetsCount < 0) {
+            throw new IllegalArgumentException(ERR_NEGATIVE_COUNT);
+        }
+        streetStarts.clear();
+        streetEnds.clear();
+        int crossingsCount = switch (topology) {
+            case GRID -> generateGridStreets(streetsCount);
+            case STAR -> generateStarStreets(streetsCount);
+            case RING -> generateRingStreets(streetsCount);
+            case RANDOM_PLANAR -> generateRandomPlanarStreets(streetsCount);
+        };
+        int totalCarsCount = carsCount >= 0 ? carsCount : carsPerStreet * streetStarts.size();
+        int carsPerStreetCeiling = (totalCarsCount + streetStarts.size() - 1) / streetStarts.size();
+        if (carsPerStreetCeiling > streetLength / 10 + 1) {
+            throw new IllegalArgumentException(ERR_TOO_MANY_CARS);
+        }
+        Files.createDirectories(folderPath);
+        writeCrossings(folderPath.resolve(SimulationFileLoader.FILENAME_CROSSINGS), crossingsCount);
+        writeStreets(folderPath.resolve(SimulationFileLoader.FILENAME_STREETS));
+        writeCars(folderPath.resolve(SimulationFileLoader.FILENAME_CARS), totalCarsCount);
+    }
+
+    /**
+     * Generates the simulation files of a grid containing the specified number of cars with the set cars per street
+     *
+     * @param folderPath the path of the folder into which the files are written, created if it doesn't exist
+     * @param carsCount  the number of cars
+     * @throws IOException if a file can't be written
+     */
+    public void generateGrid(Path folderPath, int carsCount) throws IOException {
+        int previousCarsCount = this.carsCount;
+        this.carsCount = carsCount;
+        try {
+            generate(folderPath, GeneratedTopology.GRID, (carsCount + carsPerStreet - 1) / Math.max(1, carsPerStreet));
+        } finally {
+            this.carsCount = previousCarsCount;
+        }
+    }
+
+    /**
+     * Generates the streets of a grid on a torus, every crossing has two incoming and two outgoing streets
+     *
+     * @param streetsCount the approximate number of streets
+     * @return the number of crossings
+     */
+    private int generateGridStreets(int streetsCount) {
+        // A side of two crossings is the smallest one without streets from a crossing to itself
+        int sideLength = Math.max(2, (int) Math.ceil(Math.sqrt(streetsCount / 2.0)));
+        for (int i = 0; i < sideLength * sideLength; i++) {
+            int x = i % sideLength;
+            int y = i / sideLength;
+            addStreet(i, y * sideLength + (x + 1) % sideLength);
+            addStreet(i, ((y + 1) % sideLength) * sideLength + x);
+        }
+        return sideLength * sideLength;
+    }
+
+    /**
+     * Generates the streets of a star, the crossing 0 is connected to four arms of crossings in both directions
+     *
+     * @param streetsCount the approximate number of streets
+     * @return the number of crossings
+     */
+    private int generateStarStreets(int streetsCount) {
+        int armLength = Math.max(1, streetsCount / (2 * STAR_ARMS_COUNT));
+        for (int arm = 0; arm < STAR_ARMS_COUNT; arm++) {
+            int previousCrossing = 0;
+            for (int i = 0; i < armLength; i++) {
+                int crossing = 1 + arm * armLength + i;
+                addStreet(previousCrossing, crossing);
+                addStreet(crossing, previousCrossing);
+                previousCrossing = crossing;
+            }
+        }
+        return 1 + STAR_ARMS_COUNT * armLength;
+    }
+
+    /**
+     * Generates the streets of a ring, every crossing is connected to its neighbours in both directions
+     *
+     * @param streetsCount the approximate number of streets
+     * @return the number of crossings
+     */
+    private int generateRingStreets(int streetsCount) {
+        // A ring of three crossings is the smallest one without two streets between the same crossings
+        int crossingsCount = Math.max(3, streetsCount / 2);
+        for (int i = 0; i < crossingsCount; i++) {
+            addStreet(i, (i + 1) % crossingsCount);
+            addStreet((i + 1) % crossingsCount, i);
+        }
+        return crossingsCount;
+    }
+
+    /**
+     * Generates the streets of a random planar network on a square lattice: a random spanning tree connects every
+     * crossing and every further lattice edge is added with a fixed probability, every edge is connected in both
+     * directions, so every crossing has one to four incoming and outgoing streets
+     *
+     * @param streetsCount the approximate number of streets
+     * @return the number of crossings
+     */
+    private int generateRandomPlanarStreets(int streetsCount) {
+        // A spanning tree has about side * side edges, the further edges about side * side * probability
+        int sideLength = Math.max(2, (int) Math.round(Math.sqrt(streetsCount / (2 * (1 + EXTRA_EDGE_PROBABILITY)))));
+        int crossingsCount = sideLength * sideLength;
+        boolean[] visited = new boolean[crossingsCount];
+        boolean[] rightEdges = new boolean[crossingsCount];
+        boolean[] downEdges = new boolean[crossingsCount];
+        int[] stack = new int[crossingsCount];
+        int stackSize = 0;
+        stack[stackSize++] = random.nextInt(crossingsCount);
+        visited[stack[0]] = true;
+        int[] neighbours = new int[4];
+        while (stackSize > 0) {
+            int crossing = stack[stackSize - 1];
+            int x = crossing % sideLength;
+            int y = crossing / sideLength;
+            int neighboursCount = 0;
+            if (x > 0 && !visited[crossing - 1]) {
+                neighbours[neighboursCount++] = crossing - 1;
+            }
+            if (x < sideLength - 1 && !visited[crossing + 1]) {
+                neighbours[neighboursCount++] = crossing + 1;
+            }
+            if (y > 0 && !visited[crossing - sideLength]) {
+                neighbours[neighboursCount++] = crossing - sideLength;
+            }
+            if (y < sideLength - 1 && !visited[crossing + sideLength]) {
+                neighbours[neighboursCount++] = crossing + sideLength;
+            }
+            if (neighboursCount == 0) {
+                stackSize--;
+                continue;
+            }
+            int neighbour = neighbours[random.nextInt(neighboursCount)];
+            markLatticeEdge(Math.min(crossing, neighbour), Math.max(crossing, neighbour), rightEdges, downEdges);
+            visited[neighbour] = true;
+            stack[stackSize++] = neighbour;
+        }
+        for (int i = 0; i < crossingsCount; i++) {
+            if (i % sideLength < sideLength - 1 && (rightEdges[i] || random.nextDouble() < EXTRA_EDGE_PROBABILITY)) {
+                addStreet(i, i + 1);
+                addStreet(i + 1, i);
+            }
+            if (i / sideLength < sideLength - 1 && (downEdges[i] || random.nextDouble() < EXTRA_EDGE_PROBABILITY)) {
+                addStreet(i, i + sideLength);
+                addStreet(i + sideLength, i);
+            }
+        }
+        return crossingsCount;
+    }
+
+    /**
+     * Marks the lattice edge between two neighbouring crossings
+     *
+     * @param first     the crossing on the left of or above the other crossing
+     * @param second    the crossing on the right of or below the other crossing
+     * @param rightEdges array marking the edges to the right of every crossing
+     * @param downEdges  array marking the edges below every crossing
+     */
+    private static void markLatticeEdge(int first, int second, boolean[] rightEdges, boolean[] downEdges) {
+        if (second == first + 1) {
+            rightEdges[first] = true;
+        } else {
+            downEdges[first] = true;
+        }
+    }
+
+    /**
+     * Adds a street to the generated streets
+     *
+     * @param start the id of the start crossing
+     * @param end   the id of the end crossing
+     */
+    private void addStreet(int start, int end) {
+        streetStarts.add(start);
+        streetEnds.add(end);
+    }
+
+    /**
+     * Writes the crossings with random ticks counts
+     *
+     * @param filePath       the path of the crossings' file
+     * @param crossingsCount the number of crossings
+     * @throws IOException if the file can't be written
+     */
+    private void writeCrossings(Path filePath, int crossingsCount) throws IOException {
+        try (SimulationFileWriter writer = new SimulationFileWriter(filePath)) {
+            for (int i = 0; i < crossingsCount; i++) {
+                writer.beginLine().writeInteger(i).writeText(":")
+                        .writeInteger(ticksCounts[random.nextInt(ticksCounts.length)]).writeText("t");
+            }
+        }
+    }
+
+    /**
+     * Writes the generated streets with random types and speed limits
+     *
+     * @param filePath the path of the streets' file
+     * @throws IOException if the file can't be written
+     */
+    private void writeStreets(Path filePath) throws IOException {
+        try (SimulationFileWriter writer = new SimulationFileWriter(filePath)) {
+            for (int i = 0; i < streetStarts.size(); i++) {
+                int type = random.nextDouble() < typeTwoShare ? 2 : 1;
+                writer.beginLine().writeInteger(streetStarts.get(i)).writeText("-->").writeInteger(streetEnds.get(i))
+                        .writeText(":").writeInteger(streetLength).writeText("m,").writeInteger(type).writeText("x,")
+                        .writeInteger(20 + random.nextInt(21)).writeText("max");
+            }
+        }
+    }
+
+    /**
+     * Writes the cars with random maximal speeds and accelerations, the cars are distributed evenly over the streets
+     *
+     * @param filePath       the path of the cars' file
+     * @param totalCarsCount the number of cars
+     * @throws IOException if the file can't be written
+     */
+    private void writeCars(Path filePath, int totalCarsCount) throws IOException {
+        try (SimulationFileWriter writer = new SimulationFileWriter(filePath)) {
+            for (int i = 0; i < totalCarsCount; i++) {
+                writer.beginLine().writeInteger(i).writeText(",").writeInteger(i % streetStarts.size())
+                        .writeText(",").writeInteger(20 + random.nextInt(21)).writeText(",")
+                        .writeInteger(1 + random.nextInt(10));
+            }
+        }
+    }
+
+    /**
+     * Sets the length of every generated street
+     *
+     * @param streetLength the length between 10 and 1000
+     */
+    public void setStreetLength(int streetLength) {
+        if (streetLength < MIN_STREET_LENGTH || streetLength > MAX_STREET_LENGTH) {
+            throw new IllegalArgumentException(ERR_STREET_LENGTH);
+        }
+        this.streetLength = streetLength;
+    }
+
+    /**
+     * Sets the share of the streets with two lanes
+     *
+     * @param typeTwoShare the share between 0 and 1
+     */
+    public void setTypeTwoShare(double typeTwoShare) {
+        if (!(typeTwoShare >= 0 && typeTwoShare <= 1)) {
+            throw new IllegalArgumentException(ERR_TYPE_TWO_SHARE);
+        }
+        this.typeTwoShare = typeTwoShare;
+    }
+
+    /**
+     * Sets the ticks counts from which the ticks count of every crossing is chosen randomly
+     *
+     * @param ticksCounts the ticks counts, each 0 or between 3 and 10
+     */
+    public void setTicksCounts(int[] ticksCounts) {
+        if (ticksCounts.length == 0) {
+            throw new IllegalArgumentException(ERR_TICKS_COUNT);
+        }
+        for (int ticksCount : ticksCounts) {
+            if (ticksCount != 0 && (ticksCount < MIN_TICKS_COUNT || ticksCount > MAX_TICKS_COUNT)) {
+                throw new IllegalArgumentException(ERR_TICKS_COUNT);
+            }
+        }
+        this.ticksCounts = ticksCounts.clone();
+    }
+
+    /**
+     * Sets the number of cars per street, used if no total number of cars is set
+     *
+     * @param carsPerStreet the number of cars per street
+     */
+    public void setCarsPerStreet(int carsPerStreet) {
+        if (carsPerStreet < 0) {
+            throw new IllegalArgumentException(ERR_NEGATIVE_COUNT);
+        }
+        this.carsPerStreet = carsPerStreet;
+    }
+
+    /**
+     * Sets the total number of cars which are distributed evenly over the streets
+     *
+     * @param carsCount the number of cars or a negative number to use the cars per street
+     */
+    public void setCarsCount(int carsCount) {
+        this.carsCount = carsCount;
+    }
+}
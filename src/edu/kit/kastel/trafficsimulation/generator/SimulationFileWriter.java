@@ -0,0 +1,141 @@
+package src.edu.kit.kastel.trafficsimulation.generator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class writes the lines of a simulation file through a buffer into a file channel. Integers are written digit
+ * by digit into the buffer, so no strings are created for the written lines.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class SimulationFileWriter implements AutoCloseable {
+    /**
+     * Size of the buffer which is written into the channel when it is full
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * Maximal number of characters of a written integer
+     */
+    private static final int MAX_INTEGER_LENGTH = 11;
+    /**
+     * Channel of the written file
+     */
+    private final FileChannel channel;
+    /**
+     * Buffer containing the characters which aren't written into the channel yet
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    /**
+     * Array containing the digits of the written integer in reverse order
+     */
+    private final byte[] digits = new byte[MAX_INTEGER_LENGTH];
+    /**
+     * Boolean representing if a line has been written into the file
+     */
+    private boolean lineWritten;
+
+    /**
+     * Constructor of the writer, an existing file is overwritten
+     *
+     * @param filePath the path of the file
+     * @throws IOException if the file can't be opened
+     */
+    public SimulationFileWriter(Path filePath) throws IOException {
+        this.channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Begins a new line, the lines are separated by line feeds
+     *
+     * @return this writer
+     * @throws IOException if the buffer can't be written
+     */
+    public SimulationFileWriter beginLine() throws IOException {
+        if (lineWritten) {
+            writeText("\n");
+        }
+        this.lineWritten = true;
+        return this;
+    }
+
+    /**
+     * Writes a non-negative integer
+     *
+     * @param value the integer to be written
+     * @return this writer
+     * @throws IOException if the buffer can't be written
+     */
+    public SimulationFileWriter writeInteger(int value) throws IOException {
+        ensureCapacity(MAX_INTEGER_LENGTH);
+        int remaining = value;
+        int length = 0;
+        do {
+            digits[length++] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        while (length > 0) {
+            buffer.put(digits[--length]);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a text consisting of ASCII characters
+     *
+     * @param text the text to be written
+     * @return this writer
+     * @throws IOException if the buffer can't be written
+     */
+    public SimulationFileWriter writeText(String text) throws IOException {
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Writes the buffer into the channel if it can't hold the specified number of characters
+     *
+     * @param length the number of characters to be written
+     * @throws IOException if the buffer can't be written
+     */
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffer into the channel
+     *
+     * @throws IOException if the buffer can't be written
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes the remaining buffer and closes the file
+     *
+     * @throws IOException if the buffer can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
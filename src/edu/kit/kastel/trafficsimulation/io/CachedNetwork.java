@@ -0,0 +1,122 @@
+package src.edu.kit.kastel.trafficsimulation.io;
+
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarIdIndex;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.NetworkTopology;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
+
+/**
+ * This class represents a parsed and validated network kept in the {@link NetworkCache}. The streets, crossings,
+ * topology and car id index never change during a simulation and are shared by every load of the network, while the
+ * cars at their initial positions are copied for every load.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class CachedNetwork {
+    /**
+     * Estimated number of bytes of a car (its state arrays and its entries in the car id index)
+     */
+    private static final long ESTIMATED_BYTES_PER_CAR = 48;
+    /**
+     * Estimated number of bytes of a street (its object and its entries in the topology)
+     */
+    private static final long ESTIMATED_BYTES_PER_STREET = 80;
+    /**
+     * Estimated number of bytes of a crossing (its object and its entries in the topology)
+     */
+    private static final long ESTIMATED_BYTES_PER_CROSSING = 32;
+    /**
+     * Store containing the cars at their initial positions, never handed out itself
+     */
+    private final CarStateStore initialCarStates;
+    /**
+     * Index mapping car ids to car indices, built over the kept store so no store of a simulation stays reachable
+     */
+    private final CarIdIndex carIdIndex;
+    /**
+     * Array containing the streets sorted by id
+     */
+    private final Street[] streetsArray;
+    /**
+     * Array containing the crossings sorted by id
+     */
+    private final Crossing[] crossingsArray;
+    /**
+     * Topology of the network
+     */
+    private final NetworkTopology topology;
+
+    /**
+     * Constructor of the cached network
+     *
+     * @param initialCarStates store containing the cars at their initial positions, copied before it is kept
+     * @param streetsArray     array containing the streets sorted by id
+     * @param crossingsArray   array containing the crossings sorted by id
+     * @param topology         topology of the network
+     */
+    public CachedNetwork(CarStateStore initialCarStates, Street[] streetsArray, Crossing[] crossingsArray,
+                         NetworkTopology topology) {
+        this.initialCarStates = initialCarStates.copy();
+        this.carIdIndex = new CarIdIndex(this.initialCarStates);
+        this.streetsArray = streetsArray;
+        this.crossingsArray = crossingsArray;
+        this.topology = topology;
+    }
+
+    /**
+     * Creates a fresh store of the cars at their initial positions
+     *
+     * @return the store which can be changed independently of the cache
+     */
+    public CarStateStore copyCarStates() {
+        return initialCarStates.copy();
+    }
+
+    /**
+     * Estimates the number of bytes the network occupies in memory
+     *
+     * @return the estimated number of bytes
+     */
+    public long estimateBytes() {
+        return initialCarStates.size() * ESTIMATED_BYTES_PER_CAR + streetsArray.length * ESTIMATED_BYTES_PER_STREET
+                + crossingsArray.length * ESTIMATED_BYTES_PER_CROSSING;
+    }
+
+    /**
+     * Getter for the index of car ids
+     *
+     * @return index mapping car ids to car indices
+     */
+    public CarIdIndex getCarIdIndex() {
+        return carIdIndex;
+    }
+
+    /**
+     * Getter for the streets of the network
+     *
+     * @return array containing the streets sorted by id
+     */
+    public Street[] getStreetsArray() {
+        return streetsArray;
+    }
+
+    /**
+     * Getter for the crossings of the network
+     *
+     * @return array containing the crossings sorted by id
+     */
+    public Crossing[] getCrossingsArray() {
+        return crossingsArray;
+    }
+
+    /**
+     * Getter for the topology of the network
+     *
+     * @return topology of the network
+     */
+    public NetworkTopology getTopology() {
+        return topology;
+    }
+}
@@ -0,0 +1,351 @@
+package src.edu.kit.kastel.trafficsimulation.io;
+
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.NetworkTopology;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents the compiled form of a validated network in its folder. The file is little-endian and
+ * consists of a header (magic number, format version, size and modification time of the three text files), the
+ * int arrays of the streets, crossings, topology and cars with their initial positions (each preceded by its
+ * length) and the CRC32 checksum of the arrays. The file is only read if the text files haven't changed since it
+ * was written.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class CompiledNetworkFile {
+    /**
+     * The filename of the compiled network
+     */
+    public static final String FILENAME_COMPILED = "network.simc";
+    /**
+     * Integer at the beginning of every compiled network ("TSIM" in ASCII)
+     */
+    private static final int MAGIC_NUMBER = 0x4D495354;
+    /**
+     * Version of the format, files with another version are ignored
+     */
+    private static final int FORMAT_VERSION = 1;
+    /**
+     * Names of the text files from which the network is compiled
+     */
+    private static final String[] SOURCE_FILENAMES = {SimulationFileLoader.FILENAME_CARS,
+        SimulationFileLoader.FILENAME_STREETS, SimulationFileLoader.FILENAME_CROSSINGS};
+    /**
+     * Number of bytes of the header
+     */
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + SOURCE_FILENAMES.length * 2 * Long.BYTES;
+    /**
+     * Number of int arrays of the streets
+     */
+    private static final int STREET_ARRAYS_COUNT = 5;
+    /**
+     * Number of int arrays of the crossings
+     */
+    private static final int CROSSING_ARRAYS_COUNT = 2;
+    /**
+     * Number of int arrays of the topology
+     */
+    private static final int TOPOLOGY_ARRAYS_COUNT = 7;
+    /**
+     * Number of int arrays of the cars
+     */
+    private static final int CAR_ARRAYS_COUNT = 5;
+    /**
+     * Error in case the compiled network can't be written
+     */
+    private static final String ERR_NOT_WRITTEN = "Error: The compiled network couldn't be written.";
+    /**
+     * Path of the folder containing the network
+     */
+    private final Path folderPath;
+    /**
+     * Store containing the cars of the read network
+     */
+    private CarStateStore carStates;
+    /**
+     * Array containing the streets of the read network
+     */
+    private Street[] streetsArray;
+    /**
+     * Array containing the crossings of the read network
+     */
+    private Crossing[] crossingsArray;
+    /**
+     * Topology of the read network
+     */
+    private NetworkTopology topology;
+
+    /**
+     * Constructor of the compiled network file
+     *
+     * @param folderPath the path of the folder containing the network
+     */
+    public CompiledNetworkFile(String folderPath) {
+        this.folderPath = Path.of(folderPath).normalize().toAbsolutePath();
+    }
+
+    /**
+     * Reads the size and modification time of the text files. They have to be read before the files are parsed, so a
+     * file changed in the meantime makes the compiled network outdated instead of being stamped as up to date.
+     *
+     * @return the size and modification time of every text file or null if a file can't be accessed
+     */
+    public long[] readSourceStamps() {
+        long[] sourceStamps = new long[SOURCE_FILENAMES.length * 2];
+        try {
+            for (int i = 0; i < SOURCE_FILENAMES.length; i++) {
+                Path sourcePath = SimulationFileLoader.resolveSimulationFile(folderPath, SOURCE_FILENAMES[i]);
+                sourceStamps[2 * i] = Files.size(sourcePath);
+                sourceStamps[2 * i + 1] = Files.getLastModifiedTime(sourcePath).toMillis();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return sourceStamps;
+    }
+
+    /**
+     * Writes a validated network with the initial positions of its cars into the folder
+     *
+     * @param sourceStamps   size and modification time of the text files read before they were parsed
+     * @param carStates      store containing the cars placed on their starting streets
+     * @param streetsArray   array of streets sorted by id
+     * @param crossingsArray array of crossings sorted by id
+     * @param topology       topology of the network
+     * @return true if the file was written
+     */
+    public boolean write(long[] sourceStamps, CarStateStore carStates, Street[] streetsArray,
+                         Crossing[] crossingsArray, NetworkTopology topology) {
+        if (sourceStamps == null) {
+            System.out.println(ERR_NOT_WRITTEN);
+            return false;
+        }
+        int[][] arrays = new int[STREET_ARRAYS_COUNT + CROSSING_ARRAYS_COUNT + TOPOLOGY_ARRAYS_COUNT
+                + CAR_ARRAYS_COUNT][];
+        int arrayIndex = 0;
+        for (int i = 0; i < STREET_ARRAYS_COUNT; i++) {
+            arrays[arrayIndex + i] = new int[streetsArray.length];
+        }
+        for (int i = 0; i < streetsArray.length; i++) {
+            arrays[arrayIndex][i] = streetsArray[i].getStart();
+            arrays[arrayIndex + 1][i] = streetsArray[i].getEnd();
+            arrays[arrayIndex + 2][i] = streetsArray[i].getLength();
+            arrays[arrayIndex + 3][i] = streetsArray[i].getType();
+            arrays[arrayIndex + 4][i] = streetsArray[i].getSpeedLimit();
+        }
+        arrayIndex += STREET_ARRAYS_COUNT;
+        for (int i = 0; i < CROSSING_ARRAYS_COUNT; i++) {
+            arrays[arrayIndex + i] = new int[crossingsArray.length];
+        }
+        for (int i = 0; i < crossingsArray.length; i++) {
+            arrays[arrayIndex][i] = crossingsArray[i].getId();
+            arrays[arrayIndex + 1][i] = crossingsArray[i].getTicksCount();
+        }
+        arrayIndex += CROSSING_ARRAYS_COUNT;
+        System.arraycopy(topology.getTopologyArrays(), 0, arrays, arrayIndex, TOPOLOGY_ARRAYS_COUNT);
+        arrayIndex += TOPOLOGY_ARRAYS_COUNT;
+        for (int i = 0; i < CAR_ARRAYS_COUNT; i++) {
+            arrays[arrayIndex + i] = new int[carStates.size()];
+        }
+        for (int i = 0; i < carStates.size(); i++) {
+            arrays[arrayIndex][i] = carStates.getId(i);
+            arrays[arrayIndex + 1][i] = carStates.getCurrentStreet(i);
+            arrays[arrayIndex + 2][i] = carStates.getMaxSpeed(i);
+            arrays[arrayIndex + 3][i] = carStates.getAcceleration(i);
+            arrays[arrayIndex + 4][i] = carStates.getCurrentPosition(i);
+        }
+        try {
+            writeArrays(sourceStamps, arrays);
+            return true;
+        } catch (IOException | ArithmeticException e) {
+            // An ArithmeticException is thrown for networks which don't fit into a single buffer
+            System.out.println(ERR_NOT_WRITTEN);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the header, the arrays and the checksum into a temporary file which then replaces the compiled network
+     *
+     * @param sourceStamps size and modification time of the text files
+     * @param arrays       the arrays of the network
+     * @throws IOException if the file can't be written
+     * @throws ArithmeticException if the file would be larger than 2 GiB
+     */
+    private void writeArrays(long[] sourceStamps, int[][] arrays) throws IOException {
+        long payloadBytes = 0;
+        for (int[] array : arrays) {
+            payloadBytes += (long) (array.length + 1) * Integer.BYTES;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(HEADER_BYTES + payloadBytes + Long.BYTES))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC_NUMBER).putInt(FORMAT_VERSION);
+        for (long sourceStamp : sourceStamps) {
+            buffer.putLong(sourceStamp);
+        }
+        for (int[] array : arrays) {
+            buffer.putInt(array.length);
+            buffer.asIntBuffer().put(array);
+            buffer.position(buffer.position() + array.length * Integer.BYTES);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), HEADER_BYTES, (int) payloadBytes);
+        buffer.putLong(checksum.getValue());
+        buffer.flip();
+        Path temporaryPath = folderPath.resolve(FILENAME_COMPILED + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temporaryPath, folderPath.resolve(FILENAME_COMPILED), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the compiled network by memory-mapping the file, if it exists and is up to date
+     *
+     * @return true if the network was read, false if it has to be loaded from the text files
+     */
+    public boolean read() {
+        Path compiledPath = folderPath.resolve(FILENAME_COMPILED);
+        if (!Files.isRegularFile(compiledPath)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(compiledPath, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES + Long.BYTES) {
+                return false;
+            }
+            MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            ByteBuffer buffer = mappedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+            return readHeader(buffer) && readArrays(buffer);
+        } catch (IOException | RuntimeException e) {
+            // A damaged compiled network is ignored, the text files are loaded instead
+            return false;
+        }
+    }
+
+    /**
+     * Reads the header and checks that the text files haven't changed since the network was compiled
+     *
+     * @param buffer the buffer containing the file
+     * @return true if the compiled network is up to date
+     * @throws IOException if a text file can't be accessed
+     */
+    private boolean readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != FORMAT_VERSION) {
+            return false;
+        }
+        for (String sourceFilename : SOURCE_FILENAMES) {
+            Path sourcePath = SimulationFileLoader.resolveSimulationFile(folderPath, sourceFilename);
+            if (!Files.isRegularFile(sourcePath) || buffer.getLong() != Files.size(sourcePath)
+                    || buffer.getLong() != Files.getLastModifiedTime(sourcePath).toMillis()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the arrays of the network after verifying their checksum
+     *
+     * @param buffer the buffer containing the file, positioned behind the header
+     * @return true if the checksum is correct
+     */
+    private boolean readArrays(ByteBuffer buffer) {
+        int checksumPosition = buffer.limit() - Long.BYTES;
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().limit(checksumPosition));
+        if (checksum.getValue() != buffer.getLong(checksumPosition)) {
+            return false;
+        }
+        IntBuffer intBuffer = buffer.limit(checksumPosition).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[][] streetArrays = readArrays(intBuffer, STREET_ARRAYS_COUNT);
+        int[][] crossingArrays = readArrays(intBuffer, CROSSING_ARRAYS_COUNT);
+        int[][] topologyArrays = readArrays(intBuffer, TOPOLOGY_ARRAYS_COUNT);
+        int[][] carArrays = readArrays(intBuffer, CAR_ARRAYS_COUNT);
+        this.streetsArray = new Street[streetArrays[0].length];
+        for (int i = 0; i < streetsArray.length; i++) {
+            streetsArray[i] = new Street(i, streetArrays[0][i], streetArrays[1][i], streetArrays[2][i],
+                    streetArrays[3][i], streetArrays[4][i]);
+        }
+        this.crossingsArray = new Crossing[crossingArrays[0].length];
+        for (int i = 0; i < crossingsArray.length; i++) {
+            crossingsArray[i] = new Crossing(crossingArrays[0][i], crossingArrays[1][i]);
+        }
+        this.topology = new NetworkTopology(topologyArrays);
+        this.carStates = new CarStateStore(carArrays[0], carArrays[1], carArrays[2], carArrays[3]);
+        for (int i = 0; i < carStates.size(); i++) {
+            carStates.setCurrentPosition(i, carArrays[4][i]);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the specified number of length-prefixed int arrays
+     *
+     * @param intBuffer   the buffer from which the arrays are read
+     * @param arraysCount the number of arrays
+     * @return the read arrays
+     */
+    private static int[][] readArrays(IntBuffer intBuffer, int arraysCount) {
+        int[][] arrays = new int[arraysCount][];
+        for (int i = 0; i < arraysCount; i++) {
+            arrays[i] = new int[intBuffer.get()];
+            intBuffer.get(arrays[i]);
+        }
+        return arrays;
+    }
+
+    /**
+     * Getter for the cars of the read network
+     *
+     * @return store containing the cars at their initial positions
+     */
+    public CarStateStore getCarStates() {
+        return carStates;
+    }
+
+    /**
+     * Getter for the streets of the read network
+     *
+     * @return array of streets sorted by id
+     */
+    public Street[] getStreetsArray() {
+        return streetsArray;
+    }
+
+    /**
+     * Getter for the crossings of the read network
+     *
+     * @return array of crossings sorted by id
+     */
+    public Crossing[] getCrossingsArray() {
+        return crossingsArray;
+    }
+
+    /**
+     * Getter for the topology of the read network
+     *
+     * @return topology of the network
+     */
+    public NetworkTopology getTopology() {
+        return topology;
+    }
+}
@@ -0,0 +1,197 @@
+package src.edu.kit.kastel.trafficsimulation.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * This class represents an in-process cache of parsed and validated networks. A network is keyed by the canonical
+ * path of its folder and stamped with the size, modification time and content hash of its three simulation files, so
+ * a network whose files have changed is never handed out. The least recently loaded networks are evicted once the
+ * estimated size of all cached networks exceeds the capacity.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class NetworkCache {
+    /**
+     * Names of the simulation files which are stamped
+     */
+    private static final String[] SIMULATION_FILENAMES = {SimulationFileLoader.FILENAME_CARS,
+        SimulationFileLoader.FILENAME_STREETS, SimulationFileLoader.FILENAME_CROSSINGS};
+    /**
+     * Number of stamp values per file: size, modification time and content hash
+     */
+    private static final int STAMP_VALUES_PER_FILE = 3;
+    /**
+     * Size of the buffer through which the files are hashed
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * Maximal estimated number of bytes of all cached networks
+     */
+    private final long capacityBytes;
+    /**
+     * Cached networks by the canonical path of their folder, ordered from the least to the most recently loaded one
+     */
+    private final Map<Path, CachedNetwork> networks = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Stamps of the simulation files of the cached networks by the canonical path of their folder
+     */
+    private final Map<Path, long[]> stamps = new LinkedHashMap<>();
+    /**
+     * Estimated number of bytes of all cached networks
+     */
+    private long usedBytes;
+    /**
+     * Number of loads which were answered by the cache
+     */
+    private long hitsCount;
+    /**
+     * Number of loads which had to read the files
+     */
+    private long missesCount;
+
+    /**
+     * Constructor of the network cache
+     *
+     * @param capacityBytes maximal estimated number of bytes of all cached networks
+     */
+    public NetworkCache(long capacityBytes) {
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * Finds the cached network of a folder if its simulation files haven't changed since it was cached
+     *
+     * @param folderPath the canonical path of the folder
+     * @param stamp      the current stamp of the folder's simulation files
+     * @return the cached network or null if there is none for the stamp
+     */
+    public CachedNetwork get(Path folderPath, long[] stamp) {
+        CachedNetwork network = networks.get(folderPath);
+        if (network != null && Arrays.equals(stamps.get(folderPath), stamp)) {
+            this.hitsCount++;
+            return network;
+        }
+        if (network != null) {
+            remove(folderPath);
+        }
+        this.missesCount++;
+        return null;
+    }
+
+    /**
+     * Caches the network of a folder and evicts the least recently loaded networks until the capacity is kept
+     *
+     * @param folderPath the canonical path of the folder
+     * @param stamp      the stamp of the folder's simulation files from which the network was loaded
+     * @param network    the parsed and validated network
+     */
+    public void put(Path folderPath, long[] stamp, CachedNetwork network) {
+        remove(folderPath);
+        if (network.estimateBytes() > capacityBytes) {
+            return;
+        }
+        networks.put(folderPath, network);
+        stamps.put(folderPath, stamp);
+        this.usedBytes += network.estimateBytes();
+        Iterator<Map.Entry<Path, CachedNetwork>> iterator = networks.entrySet().iterator();
+        while (usedBytes > capacityBytes) {
+            Map.Entry<Path, CachedNetwork> eldest = iterator.next();
+            this.usedBytes -= eldest.getValue().estimateBytes();
+            stamps.remove(eldest.getKey());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Removes the cached network of a folder
+     *
+     * @param folderPath the canonical path of the folder
+     */
+    private void remove(Path folderPath) {
+        CachedNetwork network = networks.remove(folderPath);
+        if (network != null) {
+            this.usedBytes -= network.estimateBytes();
+            stamps.remove(folderPath);
+        }
+    }
+
+    /**
+     * Finds the canonical path of a folder (absolute and without symbolic links)
+     *
+     * @param folderPath the path of the folder
+     * @return the canonical path or null if the folder doesn't exist
+     */
+    public static Path findCanonicalPath(String folderPath) {
+        try {
+            return Path.of(folderPath).toRealPath();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stamps the simulation files of a folder with their size, modification time and content hash
+     *
+     * @param folderPath the canonical path of the folder
+     * @return the stamp or null if a file can't be read
+     */
+    public static long[] stampSimulationFiles(Path folderPath) {
+        long[] stamp = new long[SIMULATION_FILENAMES.length * STAMP_VALUES_PER_FILE];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        for (int i = 0; i < SIMULATION_FILENAMES.length; i++) {
+            Path filePath = SimulationFileLoader.resolveSimulationFile(folderPath, SIMULATION_FILENAMES[i]);
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                stamp[i * STAMP_VALUES_PER_FILE] = channel.size();
+                stamp[i * STAMP_VALUES_PER_FILE + 1] = Files.getLastModifiedTime(filePath).toMillis();
+                CRC32C checksum = new CRC32C();
+                while (channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    checksum.update(buffer);
+                    buffer.clear();
+                }
+                stamp[i * STAMP_VALUES_PER_FILE + 2] = checksum.getValue();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        return stamp;
+    }
+
+    /**
+     * Getter for the number of loads which were answered by the cache
+     *
+     * @return the number of cache hits
+     */
+    public long getHitsCount() {
+        return hitsCount;
+    }
+
+    /**
+     * Getter for the number of loads which had to read the files
+     *
+     * @return the number of cache misses
+     */
+    public long getMissesCount() {
+        return missesCount;
+    }
+
+    /**
+     * Getter for the number of cached networks
+     *
+     * @return the number of cached networks
+     */
+    public int getNetworksCount() {
+        return networks.size();
+    }
+}
@@ -1,10 +1,23 @@
 package src.edu.kit.kastel.trafficsimulation.io;
 
 
+import src.edu.kit.kastel.trafficsimulation.metrics.LoadStageEvent;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Car;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarIdIndex;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Lane;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.NetworkTopology;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
 
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * This class is a frame for assembling the object arrays (cars, streets, crossings) and checking their validity
  *
@@ -12,6 +25,83 @@
  * @version 1.0
  */
 public class SimulationFileAssembler {
+    /**
+     * Names of the stages of loading whose durations are measured
+     */
+    private static final String[] STAGE_NAMES = {"cache lookup", "read compiled network", "read cars",
+        "read streets", "read crossings", "read files", "topology", "validation", "placement", "total"};
+    /**
+     * Index of the stage stamping the files and looking up the network in the cache
+     */
+    private static final int STAGE_CACHE = 0;
+    /**
+     * Index of the stage reading the compiled network
+     */
+    private static final int STAGE_COMPILED = 1;
+    /**
+     * Index of the stage parsing and converting the cars
+     */
+    private static final int STAGE_CARS = 2;
+    /**
+     * Index of the stage parsing and converting the streets
+     */
+    private static final int STAGE_STREETS = 3;
+    /**
+     * Index of the stage parsing and converting the crossings
+     */
+    private static final int STAGE_CROSSINGS = 4;
+    /**
+     * Index of the stage in which the three files are read concurrently
+     */
+    private static final int STAGE_FILES = 5;
+    /**
+     * Index of the stage linking the streets and crossings
+     */
+    private static final int STAGE_TOPOLOGY = 6;
+    /**
+     * Index of the stage checking the validity of the network
+     */
+    private static final int STAGE_VALIDATION = 7;
+    /**
+     * Index of the stage placing the cars on their streets
+     */
+    private static final int STAGE_PLACEMENT = 8;
+    /**
+     * Index of the stage containing the whole loading
+     */
+    private static final int STAGE_TOTAL = 9;
+    /**
+     * Integer representing a stage which didn't run during the last loading
+     */
+    private static final long NOT_MEASURED = -1;
+    /**
+     * Number of threads loading the network (one per file)
+     */
+    private static final int LOADING_THREADS_COUNT = 3;
+    /**
+     * Durations of the stages of the last successful loading in nanoseconds
+     */
+    private long[] stageNanos = new long[STAGE_NAMES.length];
+    /**
+     * Durations of the stages of the current loading in nanoseconds, kept only if the loading succeeds
+     */
+    private long[] loadingStageNanos = new long[STAGE_NAMES.length];
+    /**
+     * Folder from which the network is currently loaded, reported to the flight recorder
+     */
+    private String loadingFolder;
+    /**
+     * Cache of the loaded networks, null if every network is read from its files
+     */
+    private final NetworkCache networkCache;
+    /**
+     * Local instance of the store containing the state of every car
+     */
+    private CarStateStore carStates;
+    /**
+     * Local instance of the index mapping car ids to car indices
+     */
+    private CarIdIndex carIdIndex;
     /**
      * Local instance of car objects array
      */
@@ -24,69 +114,323 @@ public class SimulationFileAssembler {
      * Local instance of the crossing objects array
      */
     private Crossing[] crossingsArray;
+    /**
+     * Local instance of the lane objects array
+     */
+    private Lane[] lanesArray;
+    /**
+     * Local instance of the network's topology
+     */
+    private NetworkTopology topology;
+
+    /**
+     * Constructor of an assembler which reads every network from its files
+     */
+    public SimulationFileAssembler() {
+        this(null);
+    }
 
     /**
-     * Loads, converts and checks the simulation files for errors
+     * Constructor of an assembler which takes unchanged networks from a cache
+     *
+     * @param networkCache the cache of the loaded networks
+     */
+    public SimulationFileAssembler(NetworkCache networkCache) {
+        this.networkCache = networkCache;
+    }
+
+    /**
+     * Takes the network from the cache if its files haven't changed, otherwise loads the compiled network if it is up
+     * to date or loads, converts and checks the simulation files for errors
      *
      * @param filePath the folder path in which the files containing the traffic objects' data are stored
      * @return true if the arrays were generated successfully
      */
-
     public boolean assembleSimulationFiles(String filePath) {
-        SimulationFileLoader simulationFileLoader = new SimulationFileLoader(filePath);
-        if (simulationFileLoader.loadCars() == null || simulationFileLoader.loadStreets() == null
-                || simulationFileLoader.loadCrossings() == null) {
+        startStages(filePath);
+        LoadStageEvent totalEvent = LoadStageEvent.start();
+        LoadStageEvent cacheEvent = LoadStageEvent.start();
+        Path canonicalPath = networkCache == null ? null : NetworkCache.findCanonicalPath(filePath);
+        long[] stamp = canonicalPath == null ? null : NetworkCache.stampSimulationFiles(canonicalPath);
+        if (stamp != null) {
+            CachedNetwork cachedNetwork = networkCache.get(canonicalPath, stamp);
+            endStage(STAGE_CACHE, cacheEvent, null, null);
+            if (cachedNetwork != null) {
+                assembleCachedNetwork(cachedNetwork);
+                endStage(STAGE_TOTAL, totalEvent, carStates, streetsArray);
+                this.stageNanos = loadingStageNanos;
+                return true;
+            }
+        }
+        boolean assembled = assembleCompiledNetwork(filePath) || assembleTextFiles(filePath);
+        if (assembled && stamp != null) {
+            networkCache.put(canonicalPath, stamp,
+                    new CachedNetwork(carStates, streetsArray, crossingsArray, topology));
+        }
+        endStage(STAGE_TOTAL, totalEvent, assembled ? carStates : null, assembled ? streetsArray : null);
+        if (assembled) {
+            this.stageNanos = loadingStageNanos;
+        }
+        return assembled;
+    }
+
+    /**
+     * Takes the shared arrays of a cached network and a fresh copy of its cars
+     *
+     * @param cachedNetwork the cached network
+     */
+    private void assembleCachedNetwork(CachedNetwork cachedNetwork) {
+        this.carStates = cachedNetwork.copyCarStates();
+        this.carIdIndex = cachedNetwork.getCarIdIndex();
+        this.carsArray = carStates.createCarViews();
+        this.streetsArray = cachedNetwork.getStreetsArray();
+        this.crossingsArray = cachedNetwork.getCrossingsArray();
+        this.topology = cachedNetwork.getTopology();
+        LoadStageEvent placementEvent = LoadStageEvent.start();
+        fillLanes();
+        endStage(STAGE_PLACEMENT, placementEvent, carStates, streetsArray);
+    }
+
+    /**
+     * Loads the compiled network if it is up to date
+     *
+     * @param filePath the folder path in which the compiled network is stored
+     * @return true if the compiled network was loaded
+     */
+    private boolean assembleCompiledNetwork(String filePath) {
+        LoadStageEvent compiledEvent = LoadStageEvent.start();
+        CompiledNetworkFile compiledNetworkFile = new CompiledNetworkFile(filePath);
+        if (!compiledNetworkFile.read()) {
+            endStage(STAGE_COMPILED, compiledEvent, null, null);
+            return false;
+        }
+        endStage(STAGE_COMPILED, compiledEvent, compiledNetworkFile.getCarStates(),
+                compiledNetworkFile.getStreetsArray());
+        this.carStates = compiledNetworkFile.getCarStates();
+        this.carIdIndex = new CarIdIndex(carStates);
+        this.carsArray = carStates.createCarViews();
+        this.streetsArray = compiledNetworkFile.getStreetsArray();
+        this.crossingsArray = compiledNetworkFile.getCrossingsArray();
+        this.topology = compiledNetworkFile.getTopology();
+        LoadStageEvent placementEvent = LoadStageEvent.start();
+        fillLanes();
+        endStage(STAGE_PLACEMENT, placementEvent, carStates, streetsArray);
+        return true;
+    }
+
+    /**
+     * Replaces the cars of the assembled network by the cars of a simulation file, the streets, crossings and topology
+     * are kept and only the checks concerning the cars are run
+     *
+     * @param filePath the folder path in which the file containing the cars' data is stored
+     * @return true if the cars were replaced successfully
+     */
+    public boolean reassembleCars(String filePath) {
+        startStages(filePath);
+        LoadStageEvent totalEvent = LoadStageEvent.start();
+        LoadStageEvent carsEvent = LoadStageEvent.start();
+        SimulationFileConverter simulationFileConverter = new SimulationFileConverter();
+        CarStateStore carStates;
+        try {
+            carStates = simulationFileConverter.generateCarStates(new SimulationFileLoader(filePath).parseCars());
+        } catch (SimulationFileException e) {
+            System.out.println(e.getMessage());
+            return false;
+        }
+        endStage(STAGE_CARS, carsEvent, carStates, streetsArray);
+        LoadStageEvent validationEvent = LoadStageEvent.start();
+        Car[] carsArray = carStates.createCarViews();
+        boolean valid = new SimulationFileChecker()
+                .checkCarsValidity(carsArray, streetsArray, simulationFileConverter.getFirstDuplicateCarID());
+        endStage(STAGE_VALIDATION, validationEvent, carStates, streetsArray);
+        if (valid) {
+            LoadStageEvent placementEvent = LoadStageEvent.start();
+            this.carStates = carStates;
+            this.carIdIndex = new CarIdIndex(carStates);
+            this.carsArray = carsArray;
+            placeCarsOnStreets();
+            endStage(STAGE_PLACEMENT, placementEvent, carStates, streetsArray);
+        }
+        endStage(STAGE_TOTAL, totalEvent, carStates, streetsArray);
+        if (valid) {
+            this.stageNanos = loadingStageNanos;
+        }
+        return valid;
+    }
+
+    /**
+     * Loads, converts and checks the simulation files and writes the valid network as compiled network into the folder
+     *
+     * @param filePath the folder path in which the files containing the traffic objects' data are stored
+     * @return true if the network was compiled successfully
+     */
+    public boolean compileSimulationFiles(String filePath) {
+        startStages(filePath);
+        CompiledNetworkFile compiledNetworkFile = new CompiledNetworkFile(filePath);
+        long[] sourceStamps = compiledNetworkFile.readSourceStamps();
+        if (!assembleTextFiles(filePath)) {
             return false;
         }
+        this.stageNanos = loadingStageNanos;
+        return compiledNetworkFile.write(sourceStamps, carStates, streetsArray, crossingsArray, topology);
+    }
+
+    /**
+     * Loads, converts and checks the text simulation files for errors. The three files are parsed and converted
+     * concurrently, each by its own thread, while their errors are printed in the order cars, streets, crossings. The
+     * same threads then run the checks of the network concurrently.
+     *
+     * @param filePath the folder path in which the files containing the traffic objects' data are stored
+     * @return true if the arrays were generated successfully
+     */
+    private boolean assembleTextFiles(String filePath) {
+        SimulationFileLoader simulationFileLoader = new SimulationFileLoader(filePath);
         SimulationFileConverter simulationFileConverter = new SimulationFileConverter();
-        SimulationFileChecker simulationFileChecker = new SimulationFileChecker();
-        Car[] carsArray = simulationFileConverter.generateCarsArray(simulationFileLoader.loadCars());
-        Street[] streetsArray = simulationFileConverter.generateStreetsArray(simulationFileLoader.loadStreets());
-        Crossing[] crossingsArray
-                = simulationFileConverter.generateCrossingsArray(simulationFileLoader.loadCrossings());
-        fillCrossingsWithStreets(crossingsArray, streetsArray);
-        if (simulationFileChecker.checkValidity(carsArray, streetsArray, crossingsArray)) {
+        LoadStageEvent filesEvent = LoadStageEvent.start();
+        // Missing files are reported before malformed ones, as every file was read before any was parsed
+        if (!simulationFileLoader.simulationFilesExist()) {
+            return false;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(LOADING_THREADS_COUNT);
+        try {
+            Future<CarStateStore> carsFuture = executor.submit(measure(STAGE_CARS,
+                () -> simulationFileConverter.generateCarStates(simulationFileLoader.parseCars())));
+            Future<Street[]> streetsFuture = executor.submit(measure(STAGE_STREETS,
+                () -> simulationFileConverter.generateStreetsArray(simulationFileLoader.parseStreets())));
+            Future<Crossing[]> crossingsFuture = executor.submit(measure(STAGE_CROSSINGS,
+                () -> simulationFileConverter.generateCrossingsArray(simulationFileLoader.parseCrossings())));
+            CarStateStore carStates = awaitFile(carsFuture);
+            Street[] streetsArray = carStates == null ? null : awaitFile(streetsFuture);
+            Crossing[] crossingsArray = streetsArray == null ? null : awaitFile(crossingsFuture);
+            endStage(STAGE_FILES, filesEvent, carStates, streetsArray);
+            if (crossingsArray == null) {
+                return false;
+            }
+            LoadStageEvent topologyEvent = LoadStageEvent.start();
+            Car[] carsArray = carStates.createCarViews();
+            NetworkTopology topology = new NetworkTopology(streetsArray, crossingsArray);
+            endStage(STAGE_TOPOLOGY, topologyEvent, carStates, streetsArray);
+            LoadStageEvent validationEvent = LoadStageEvent.start();
+            boolean valid = new SimulationFileChecker()
+                    .checkValidity(carsArray, streetsArray, crossingsArray, topology,
+                            simulationFileConverter.getFirstDuplicateCarID(), executor);
+            endStage(STAGE_VALIDATION, validationEvent, carStates, streetsArray);
+            if (!valid) {
+                return false;
+            }
+            LoadStageEvent placementEvent = LoadStageEvent.start();
+            this.carStates = carStates;
+            this.carIdIndex = new CarIdIndex(carStates);
             this.carsArray = carsArray;
             this.streetsArray = streetsArray;
             this.crossingsArray = crossingsArray;
+            this.topology = topology;
             placeCarsOnStreets();
+            endStage(STAGE_PLACEMENT, placementEvent, carStates, streetsArray);
             return true;
+        } finally {
+            executor.shutdownNow();
         }
-        return false;
     }
 
     /**
-     * Fills two separate arrays of every crossing with the ids of incoming and outgoing streets
+     * Collects the durations of the stages of the next loading in a new array, so readings abandoned during the last
+     * loading can't write into the durations of the next one and a failed loading keeps the durations of the loaded
+     * network
      *
-     * @param crossingsArray array of crossings converted from the files
-     * @param streetsArray   array of streets converted from the files
+     * @param filePath the folder from which the next network is loaded
      */
+    private void startStages(String filePath) {
+        this.loadingStageNanos = new long[STAGE_NAMES.length];
+        Arrays.fill(loadingStageNanos, NOT_MEASURED);
+        this.loadingFolder = filePath;
+    }
 
-    private void fillCrossingsWithStreets(Crossing[] crossingsArray, Street[] streetsArray) {
-        for (Street street : streetsArray) {
-            for (Crossing crossing : crossingsArray) {
-                if (street.getStart() == crossing.getId()) {
-                    crossing.addOutgoingStreetId(street.getId());
-                }
-                if (street.getEnd() == crossing.getId()) {
-                    crossing.addIncomingStreetId(street.getId());
-                }
+    /**
+     * Stores the duration of a stage and reports it to the flight recorder
+     *
+     * @param stage        the index of the stage
+     * @param event        the event started at the beginning of the stage
+     * @param carStates    the cars of the network or null if they aren't known yet
+     * @param streetsArray the streets of the network or null if they aren't known yet
+     */
+    private void endStage(int stage, LoadStageEvent event, CarStateStore carStates, Street[] streetsArray) {
+        loadingStageNanos[stage] = event.finish(STAGE_NAMES[stage], loadingFolder,
+                carStates == null ? LoadStageEvent.UNKNOWN_COUNT : carStates.size(),
+                streetsArray == null ? LoadStageEvent.UNKNOWN_COUNT : streetsArray.length);
+    }
+
+    /**
+     * Wraps the reading of a file so that its duration is stored as duration of the specified stage
+     *
+     * @param stage   the index of the stage
+     * @param reading the reading of the file
+     * @param <T>     the type of the read traffic objects
+     * @return the reading which measures its duration
+     */
+    private <T> Callable<T> measure(int stage, Callable<T> reading) {
+        long[] readingStageNanos = loadingStageNanos;
+        String folder = loadingFolder;
+        return () -> {
+            LoadStageEvent event = LoadStageEvent.start();
+            T result = reading.call();
+            readingStageNanos[stage] = event.finish(STAGE_NAMES[stage], folder,
+                    result instanceof CarStateStore readCarStates ? readCarStates.size() : LoadStageEvent.UNKNOWN_COUNT,
+                    result instanceof Street[] readStreets ? readStreets.length : LoadStageEvent.UNKNOWN_COUNT);
+            return result;
+        };
+    }
+
+    /**
+     * Waits for the reading of a file and prints its error if it has failed
+     *
+     * @param future the future of the reading
+     * @param <T>    the type of the read traffic objects
+     * @return the read traffic objects or null if the reading has failed
+     */
+    private static <T> T awaitFile(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SimulationFileException) {
+                System.out.println(e.getCause().getMessage());
+                return null;
             }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
         }
     }
 
     /**
-     * Assigns the position of every car corresponding to its id and starting street
+     * Assigns the position of every car corresponding to its id and starting street and fills the street's lane
      */
     private void placeCarsOnStreets() {
+        this.lanesArray = new Lane[streetsArray.length];
         for (Street street : streetsArray) {
-            int carNumber = 0;
-            for (Car car : carsArray) {
-                if (street.getId() == car.getCurrentStreet()) {
-                    car.setCurrentPosition(street.getLength() - (10 * carNumber));
-                    carNumber++;
-                }
-            }
+            this.lanesArray[street.getId()] = new Lane((street.getLength() / 10) + 1);
+        }
+        // The cars are sorted by id, so every car is placed 10 behind the car of its street added before it
+        for (int i = 0; i < carStates.size(); i++) {
+            Street street = streetsArray[carStates.getCurrentStreet(i)];
+            Lane lane = lanesArray[street.getId()];
+            carStates.setCurrentPosition(i, street.getLength() - (10 * lane.size()));
+            lane.addLast(i);
+        }
+    }
+
+    /**
+     * Fills the lanes with the cars of a compiled or cached network, whose positions are already assigned
+     */
+    private void fillLanes() {
+        this.lanesArray = new Lane[streetsArray.length];
+        for (Street street : streetsArray) {
+            this.lanesArray[street.getId()] = new Lane((street.getLength() / 10) + 1);
+        }
+        // The cars of a street are ordered by index from its end, so they are added to the lanes in index order
+        for (int i = 0; i < carStates.size(); i++) {
+            lanesArray[carStates.getCurrentStreet(i)].addLast(i);
         }
     }
 
@@ -99,6 +443,24 @@ public Car[] getCarsArray() {
         return carsArray;
     }
 
+    /**
+     * Getter for the assembled store of car states
+     *
+     * @return the assembled store of car states
+     */
+    public CarStateStore getCarStates() {
+        return carStates;
+    }
+
+    /**
+     * Getter for the assembled index of car ids
+     *
+     * @return the assembled index of car ids
+     */
+    public CarIdIndex getCarIdIndex() {
+        return carIdIndex;
+    }
+
     /**
      * Getter for the assembled array of crossings
      *
@@ -116,4 +478,40 @@ public Crossing[] getCrossingsArray() {
     public Street[] getStreetsArray() {
         return streetsArray;
     }
+
+    /**
+     * Getter for the assembled topology of the network
+     *
+     * @return the assembled topology of the network
+     */
+    public NetworkTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Getter for the assembled array of lanes
+     *
+     * @return the assembled array of lanes sorted by street id
+     */
+    public Lane[] getLanesArray() {
+        return lanesArray;
+    }
+
+    /**
+     * Getter for the names of the stages of loading
+     *
+     * @return array containing the name of every stage
+     */
+    public String[] getStageNames() {
+        return STAGE_NAMES.clone();
+    }
+
+    /**
+     * Getter for the durations of the stages of the last successful loading
+     *
+     * @return array containing the duration of every stage in nanoseconds, negative for stages which didn't run
+     */
+    public long[] getStageNanos() {
+        return stageNanos.clone();
+    }
 }
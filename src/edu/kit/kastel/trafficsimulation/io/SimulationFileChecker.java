@@ -2,11 +2,20 @@
 
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Car;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.NetworkTopology;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.TrafficObject;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 /**
- * This class contains multiple functions that check the validity of the traffic objects
+ * This class contains multiple functions that check the validity of the traffic objects. Every check runs in linear
+ * time and returns the error of the first invalid object, so the checks can run concurrently while the error of the
+ * first failing check is printed.
  *
  * @author unkno
  * @version 1.0
@@ -92,186 +101,227 @@ public class SimulationFileChecker {
     /**
      * Checks the validity of all three object arrays (cars, streets, crossings)
      *
-     * @param carsArray      the array of cars converted from the files
-     * @param streetsArray   the array of streets converted from the files
-     * @param crossingsArray the array of crossings converted from the files
+     * @param carsArray           the array of cars converted from the files
+     * @param streetsArray        the array of streets converted from the files
+     * @param crossingsArray      the array of crossings converted from the files
+     * @param topology            the topology linking the streets and crossings
+     * @param firstDuplicateCarID the smallest car id occurring twice, found while the cars were sorted
+     * @param executor            the executor running the checks concurrently
      * @return true if the files are valid
      */
-    public boolean checkValidity(Car[] carsArray, Street[] streetsArray, Crossing[] crossingsArray) {
-        return !invalidStreetProperties(streetsArray) && !invalidCrossingProperties(crossingsArray)
-                && !invalidCarProperties(carsArray, streetsArray.length) && existsMatchingID(carsArray)
-                && existsMatchingID(streetsArray) && !tooManyCars(streetsArray, carsArray)
-                && !invalidStreetsOnCrossing(crossingsArray) && !endsOfStreetMissing(streetsArray, crossingsArray);
+    public boolean checkValidity(Car[] carsArray, Street[] streetsArray, Crossing[] crossingsArray,
+                                 NetworkTopology topology, int firstDuplicateCarID, ExecutorService executor) {
+        List<Callable<String>> checks = List.of(
+            () -> findInvalidStreetProperties(streetsArray),
+            () -> findInvalidCrossingProperties(crossingsArray),
+            () -> findInvalidCarProperties(carsArray, streetsArray.length),
+            () -> findMatchingCarID(firstDuplicateCarID),
+            () -> findMatchingID(streetsArray),
+            () -> findTooManyCars(streetsArray, carsArray),
+            () -> findInvalidStreetsOnCrossing(crossingsArray, topology),
+            () -> findMissingEndOfStreet(streetsArray, crossingsArray));
+        List<Future<String>> futures = checks.stream().map(executor::submit).toList();
+        try {
+            for (Future<String> future : futures) {
+                String error = future.get();
+                if (error != null) {
+                    System.out.println(error);
+                    return false;
+                }
+            }
+            return true;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /**
+     * Checks the validity of a new car population for an already validated street network, running only the checks
+     * concerning the cars in the order of {@link #checkValidity}
+     *
+     * @param carsArray           the array of cars converted from the file
+     * @param streetsArray        the array of streets of the loaded network
+     * @param firstDuplicateCarID the smallest car id occurring twice, found while the cars were sorted
+     * @return true if the cars are valid
+     */
+    public boolean checkCarsValidity(Car[] carsArray, Street[] streetsArray, int firstDuplicateCarID) {
+        String error = findInvalidCarProperties(carsArray, streetsArray.length);
+        if (error == null) {
+            error = findMatchingCarID(firstDuplicateCarID);
+        }
+        if (error == null) {
+            error = findTooManyCars(streetsArray, carsArray);
+        }
+        if (error != null) {
+            System.out.println(error);
+            return false;
+        }
+        return true;
     }
 
     /**
-     * Checks if two elements have the same id
+     * Creates the error for two cars having the same id
      *
-     * @param array array of traffic objects
-     * @param <T>   template for car and street objects
-     * @return false if two ids match
+     * @param firstDuplicateCarID the smallest car id occurring twice
+     * @return the error for the id or null if no car ids match
      */
-    private <T extends TrafficObject> boolean existsMatchingID(T[] array) {
+    private String findMatchingCarID(int firstDuplicateCarID) {
+        if (firstDuplicateCarID == SimulationFileConverter.NO_DUPLICATE) {
+            return null;
+        }
+        return ERR_MATCHING_ID + firstDuplicateCarID + DOT;
+    }
+
+    /**
+     * Finds two elements having the same id
+     *
+     * @param array array of traffic objects sorted by id
+     * @param <T>   template for street objects
+     * @return the error for the first matching id or null if no ids match
+     */
+    private <T extends TrafficObject> String findMatchingID(T[] array) {
         for (int i = 0; i < array.length - 1; i++) {
             if (array[i].getId() == array[i + 1].getId()) {
-                System.out.println(ERR_MATCHING_ID + array[i].getId() + DOT);
-                return false;
+                return ERR_MATCHING_ID + array[i].getId() + DOT;
             }
         }
-        return true;
+        return null;
     }
 
     /**
-     * Checks if there are too many cars on a single street
+     * Finds the first street with too many cars by counting the cars of every street
      *
      * @param streetsArray array of streets converted from the files
      * @param carsArray    array of cats converted from the files
-     * @return false if there aren't too many cars on a single street
+     * @return the error for the first street with too many cars or null if there is none
      */
-    private boolean tooManyCars(Street[] streetsArray, Car[] carsArray) {
-        for (Street street : streetsArray) {
-            int carsOnCurrentStreet = 0;
-            for (Car car : carsArray) {
-                if (car.getCurrentStreet() == street.getId()) {
-                    carsOnCurrentStreet++;
-                }
+    private String findTooManyCars(Street[] streetsArray, Car[] carsArray) {
+        int[] carsCounts = new int[streetsArray.length];
+        for (Car car : carsArray) {
+            // Cars on nonexistent streets are reported by the check of the car properties
+            if (car.getCurrentStreet() < streetsArray.length) {
+                carsCounts[car.getCurrentStreet()]++;
             }
-            if (carsOnCurrentStreet > (street.getLength() / 10) + 1) {
-                System.out.println(ERR_TOO_MANY_CARS + street.getId() + DOT);
-                return true;
+        }
+        for (Street street : streetsArray) {
+            if (carsCounts[street.getId()] > (street.getLength() / 10) + 1) {
+                return ERR_TOO_MANY_CARS + street.getId() + DOT;
             }
         }
-        return false;
+        return null;
     }
 
     /**
-     * Checks if the number of incoming and outgoing streets on every crossing is valid
+     * Finds the first crossing with an invalid number of incoming or outgoing streets
      *
      * @param crossingsArray array of crossings converted from the files
-     * @return false if the number of incoming and outgoing streets on every crossing is valid
+     * @param topology       the topology linking the streets and crossings
+     * @return the error for the first crossing with an invalid number of streets or null if there is none
      */
-
-    private boolean invalidStreetsOnCrossing(Crossing[] crossingsArray) {
-        for (Crossing crossing : crossingsArray) {
-            if (crossing.getIncomingStreetsIDs().size() > 4 || crossing.getIncomingStreetsIDs().size() < 1
-                    || crossing.getOutgoingStreetsIDs().size() > 4 || crossing.getOutgoingStreetsIDs().size() < 1) {
-                System.out.println(ERR_INVALID_NUMBER_OF_STREETS + crossing.getId() + DOT);
-                return true;
+    private String findInvalidStreetsOnCrossing(Crossing[] crossingsArray, NetworkTopology topology) {
+        for (int i = 0; i < crossingsArray.length; i++) {
+            if (topology.getIncomingStreetsCount(i) > 4 || topology.getIncomingStreetsCount(i) < 1
+                    || topology.getOutgoingStreetsCount(i) > 4 || topology.getOutgoingStreetsCount(i) < 1) {
+                return ERR_INVALID_NUMBER_OF_STREETS + crossingsArray[i].getId() + DOT;
             }
         }
-        return false;
+        return null;
     }
 
     /**
-     * Checks if the crossings at the end of every street exist
+     * Finds the first missing crossing at the end or the start of a street
      *
      * @param streetsArray   array of streets converted from the files
-     * @param crossingsArray array of crossings converted from the files
-     * @return false if every needed crossing exists
+     * @param crossingsArray array of crossings sorted by id
+     * @return the error for the first missing crossing or null if every needed crossing exists
      */
-    private boolean endsOfStreetMissing(Street[] streetsArray, Crossing[] crossingsArray) {
+    private String findMissingEndOfStreet(Street[] streetsArray, Crossing[] crossingsArray) {
         for (Street street : streetsArray) {
-            boolean startExists = false;
-            boolean endExists = false;
-            for (Crossing crossing : crossingsArray) {
-                if (crossing.getId() == street.getStart()) {
-                    startExists = true;
-                }
-                if (crossing.getId() == street.getEnd()) {
-                    endExists = true;
-                }
-            }
-            if (!endExists) {
-                System.out.println(ERR_CROSSING_MISSING + street.getEnd() + DOT);
-                return true;
+            if (NetworkTopology.findCrossingIndex(crossingsArray, street.getEnd()) == NetworkTopology.NONE) {
+                return ERR_CROSSING_MISSING + street.getEnd() + DOT;
             }
-            if (!startExists) {
-                System.out.println(ERR_CROSSING_MISSING + street.getStart() + DOT);
-                return true;
+            if (NetworkTopology.findCrossingIndex(crossingsArray, street.getStart()) == NetworkTopology.NONE) {
+                return ERR_CROSSING_MISSING + street.getStart() + DOT;
             }
         }
-        return false;
+        return null;
     }
 
     /**
-     * Checks if every street has valid properties: length, speed limit, start, end, type
+     * Finds the first street with invalid properties: length, speed limit, start, end, type
      *
      * @param streetsArray array of streets converted from the files
-     * @return false if the properties of all streets are valid
+     * @return the error for the first invalid street or null if the properties of all streets are valid
      */
-    private boolean invalidStreetProperties(Street[] streetsArray) {
+    private String findInvalidStreetProperties(Street[] streetsArray) {
         for (Street street : streetsArray) {
             if (street.getLength() < 10 || street.getLength() > 1000) {
-                System.out.println(ERR_INVALID + MSG_STREET_LENGTH
-                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_STREET_LENGTH
+                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT;
             }
             if (street.getSpeedLimit() < 5 || street.getSpeedLimit() > 40) {
-                System.out.println(ERR_INVALID + MSG_STREET_SPEED_LIMIT
-                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_STREET_SPEED_LIMIT
+                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT;
             }
             if (street.getStart() < 0) {
-                System.out.println(ERR_INVALID + MSG_STREET_START
-                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_STREET_START
+                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT;
             }
             if (street.getEnd() < 0) {
-                System.out.println(ERR_INVALID + MSG_STREET_END
-                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_STREET_END
+                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT;
             }
             if (street.getType() != 1 && street.getType() != 2) {
-                System.out.println(ERR_INVALID + MSG_STREET_TYPE
-                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_STREET_TYPE
+                        + street.getLength() + MSG_AT_STREET_ID + street.getId() + DOT;
             }
         }
-        return false;
+        return null;
     }
 
     /**
-     * Checks if every crossing had valid properties: ticks count
+     * Finds the first crossing with invalid properties: ticks count
      *
      * @param crossingsArray array of crossings converted from the files
-     * @return false if the properties of all crossings are valid
+     * @return the error for the first invalid crossing or null if the properties of all crossings are valid
      */
-    private boolean invalidCrossingProperties(Crossing[] crossingsArray) {
+    private String findInvalidCrossingProperties(Crossing[] crossingsArray) {
         for (Crossing crossing : crossingsArray) {
             if (crossing.getTicksCount() != 0 && (crossing.getTicksCount() < 3 || crossing.getTicksCount() > 10)) {
-                System.out.println(ERR_INVALID + MSG_CROSSING_TICKS_COUNT
-                        + crossing.getTicksCount() + MSG_AT_CROSSING_ID + crossing.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_CROSSING_TICKS_COUNT
+                        + crossing.getTicksCount() + MSG_AT_CROSSING_ID + crossing.getId() + DOT;
             }
         }
-        return false;
+        return null;
     }
 
     /**
-     * Checks if the properties of every car are valid: starting street, maximal speed, acceleration
+     * Finds the first car with invalid properties: starting street, maximal speed, acceleration
      *
      * @param carsArray    array of cars converted from the files
      * @param streetsCount the count of streets converted from the files
-     * @return false if the properties of all cars are valid
+     * @return the error for the first invalid car or null if the properties of all cars are valid
      */
-    private boolean invalidCarProperties(Car[] carsArray, int streetsCount) {
+    private String findInvalidCarProperties(Car[] carsArray, int streetsCount) {
         for (Car car : carsArray) {
             if (car.getCurrentStreet() >= streetsCount) {
-                System.out.println(ERR_INVALID + MSG_CAR_START_STREET
-                        + car.getCurrentStreet() + MSG_AT_CAR_ID + car.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_CAR_START_STREET
+                        + car.getCurrentStreet() + MSG_AT_CAR_ID + car.getId() + DOT;
             }
             if (car.getMaxSpeed() < 20 || car.getMaxSpeed() > 40) {
-                System.out.println(ERR_INVALID + MSG_CAR_MAX_SPEED
-                        + car.getMaxSpeed() + MSG_AT_CAR_ID + car.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_CAR_MAX_SPEED
+                        + car.getMaxSpeed() + MSG_AT_CAR_ID + car.getId() + DOT;
             }
             if (car.getAcceleration() < 1 || car.getAcceleration() > 10) {
-                System.out.println(ERR_INVALID + MSG_CAR_ACCELERATION
-                        + car.getAcceleration() + MSG_AT_CAR_ID + car.getId() + DOT);
-                return true;
+                return ERR_INVALID + MSG_CAR_ACCELERATION
+                        + car.getAcceleration() + MSG_AT_CAR_ID + car.getId() + DOT;
             }
         }
-        return false;
+        return null;
     }
 }
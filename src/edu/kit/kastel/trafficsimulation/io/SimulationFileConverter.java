@@ -1,81 +1,97 @@
 package src.edu.kit.kastel.trafficsimulation.io;
 
-import src.edu.kit.kastel.trafficsimulation.trafficObjects.Car;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
 
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.List;
 
 /**
- * This class contains convertors from raw string arrays to specified traffic object arrays
+ * This class contains convertors from parsed columns of integers to specified traffic object arrays
  *
  * @author unkno
  * @version 1.0
  */
 public class SimulationFileConverter {
     /**
-     * Converts a list of raw car properties to array of car objects sorted by id
+     * Integer representing that no car id occurs twice
+     */
+    public static final int NO_DUPLICATE = -1;
+    /**
+     * Smallest id of the last converted cars which occurs twice ({@value NO_DUPLICATE} for none)
+     */
+    private int firstDuplicateCarID = NO_DUPLICATE;
+
+    /**
+     * Converts columns of parsed car properties to a store of car states sorted by id, the smallest id occurring twice
+     * is found while the sorted cars are gathered
      *
-     * @param carsRaw string array of cars properties
-     * @return array of car objects with specified properties
+     * @param carsColumns columns of cars properties (id, starting street, maximal speed, acceleration)
+     * @return store containing the cars with specified properties
      */
-    public Car[] generateCarsArray(List<String> carsRaw) {
-        Car[] carsArray = new Car[carsRaw.size()];
-        for (int i = 0; i < carsArray.length; i++) {
-            int[] parsedIntegers = parseIntegers(carsRaw.get(i));
-            carsArray[i] = new Car(parsedIntegers[0], parsedIntegers[1], parsedIntegers[2], parsedIntegers[3]);
+    public CarStateStore generateCarStates(int[][] carsColumns) {
+        int carsCount = carsColumns[0].length;
+        long[] sortKeys = new long[carsCount];
+        for (int i = 0; i < carsCount; i++) {
+            // The line index keeps the order of cars with matching ids
+            sortKeys[i] = ((long) carsColumns[0][i] << 32) | i;
+        }
+        Arrays.parallelSort(sortKeys);
+        int[] ids = new int[carsCount];
+        int[] startStreets = new int[carsCount];
+        int[] maxSpeeds = new int[carsCount];
+        int[] accelerations = new int[carsCount];
+        this.firstDuplicateCarID = NO_DUPLICATE;
+        for (int i = 0; i < carsCount; i++) {
+            int lineIndex = (int) sortKeys[i];
+            ids[i] = carsColumns[0][lineIndex];
+            if (i > 0 && ids[i] == ids[i - 1] && firstDuplicateCarID == NO_DUPLICATE) {
+                this.firstDuplicateCarID = ids[i];
+            }
+            startStreets[i] = carsColumns[1][lineIndex];
+            maxSpeeds[i] = carsColumns[2][lineIndex];
+            accelerations[i] = carsColumns[3][lineIndex];
         }
-        Arrays.sort(carsArray, Comparator.comparingInt(Car::getId));
-        return carsArray;
+        return new CarStateStore(ids, startStreets, maxSpeeds, accelerations);
     }
 
     /**
-     * Converts a list of raw street properties to array of street objects sorted by id
+     * Converts columns of parsed street properties to array of street objects sorted by id
      *
-     * @param streetsRaw string list of streets properties
+     * @param streetsColumns columns of streets properties (start, end, length, type, speed limit)
      * @return array of street objects with specified properties
      */
-
-    public Street[] generateStreetsArray(List<String> streetsRaw) {
-        Street[] streetsArray = new Street[streetsRaw.size()];
+    public Street[] generateStreetsArray(int[][] streetsColumns) {
+        Street[] streetsArray = new Street[streetsColumns[0].length];
         for (int i = 0; i < streetsArray.length; i++) {
-            int[] parsedIntegers = parseIntegers(streetsRaw.get(i));
-            streetsArray[i] = new Street(i, parsedIntegers[0], parsedIntegers[1],
-                    parsedIntegers[2], parsedIntegers[3], parsedIntegers[4]);
+            streetsArray[i] = new Street(i, streetsColumns[0][i], streetsColumns[1][i],
+                    streetsColumns[2][i], streetsColumns[3][i], streetsColumns[4][i]);
         }
         return streetsArray;
     }
 
     /**
-     * Converts a list of raw crossings properties to array of crossing objects sorted by id
+     * Converts columns of parsed crossings properties to array of crossing objects sorted by id
      *
-     * @param crossingsRaw string list of crossings properties
+     * @param crossingsColumns columns of crossings properties (id, green phase duration)
      * @return array of crossing objects with specified properties
      */
-    public Crossing[] generateCrossingsArray(List<String> crossingsRaw) {
-        Crossing[] crossingsArray = new Crossing[crossingsRaw.size()];
+    public Crossing[] generateCrossingsArray(int[][] crossingsColumns) {
+        Crossing[] crossingsArray = new Crossing[crossingsColumns[0].length];
         for (int i = 0; i < crossingsArray.length; i++) {
-            int[] parsedIntegers = parseIntegers(crossingsRaw.get(i));
-            crossingsArray[i] = new Crossing(parsedIntegers[0], parsedIntegers[1]);
+            crossingsArray[i] = new Crossing(crossingsColumns[0][i], crossingsColumns[1][i]);
         }
         Arrays.sort(crossingsArray, Comparator.comparingInt(Crossing::getId));
         return crossingsArray;
     }
 
     /**
-     * Parses all separated integers from a string
+     * Getter for the smallest id of the last converted cars which occurs twice
      *
-     * @param rawString string to be parsed from
-     * @return array of parsed integers
+     * @return the smallest duplicate id or {@value NO_DUPLICATE} if every id is unique
      */
-    private int[] parseIntegers(String rawString) {
-        String[] splitString = rawString.replaceAll("[^0-9]", " ").trim().replaceAll(" +", " ").split(" ");
-        int[] splitIntegers = new int[splitString.length];
-        for (int i = 0; i < splitString.length; i++) {
-            splitIntegers[i] = Integer.parseInt(splitString[i]);
-        }
-        return splitIntegers;
+    public int getFirstDuplicateCarID() {
+        return firstDuplicateCarID;
     }
 }
@@ -0,0 +1,24 @@
+package src.edu.kit.kastel.trafficsimulation.io;
+
+/**
+ * This exception is thrown if a simulation file can't be found, read or parsed. Its message is the error which is
+ * printed for the file, so files parsed concurrently can report their errors in the order of loading.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class SimulationFileException extends Exception {
+    /**
+     * Serial version of the exception
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor of the exception
+     *
+     * @param message the error message to be printed
+     */
+    public SimulationFileException(String message) {
+        super(message);
+    }
+}
@@ -2,9 +2,12 @@
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 /**
  * File loader for simulation files.
@@ -26,6 +29,34 @@ public final class SimulationFileLoader {
      * The filename for the simulation data representing cars.
      */
     public static final String FILENAME_CARS = "cars.sim";
+    /**
+     * The suffix of a gzip-compressed simulation file, which is read if the plain file doesn't exist.
+     */
+    public static final String COMPRESSED_SUFFIX = ".gz";
+    /**
+     * The size of the buffer of the gzip decoder.
+     */
+    private static final int DECODER_BUFFER_SIZE = 1 << 16;
+    /**
+     * The minimal number of bytes of every range of a file which is parsed concurrently.
+     */
+    private static final long MIN_CHUNK_BYTES = 1 << 22;
+    /**
+     * The number of integer fields of a line representing a street.
+     */
+    private static final int STREET_FIELDS_COUNT = 5;
+    /**
+     * The number of integer fields of a line representing a crossing.
+     */
+    private static final int CROSSING_FIELDS_COUNT = 2;
+    /**
+     * The number of integer fields of a line representing a car.
+     */
+    private static final int CAR_FIELDS_COUNT = 4;
+    /**
+     * The error message for files which can't be read or contain malformed lines.
+     */
+    private static final String ERR_INVALID_FILE_BEHAVIOUR = "Error: Invalid file behaviour.";
 
 
     private final Path folderPath;
@@ -42,62 +73,152 @@ public SimulationFileLoader(final String folderPath) {
 
 
     /**
-     * Loads the simulation file {@value FILENAME_STREETS} and returns the lines as list of String.
-     * <p>
-     * An empty list is returned, if the file is empty.
+     * Checks that the three simulation files exist in the order {@value FILENAME_CARS}, {@value FILENAME_STREETS},
+     * {@value FILENAME_CROSSINGS} and prints the error of the first missing one.
+     *
+     * @return true if every file exists and is a normal file.
+     */
+    public boolean simulationFilesExist() {
+        try {
+            findSimulationFile(FILENAME_CARS);
+            findSimulationFile(FILENAME_STREETS);
+            findSimulationFile(FILENAME_CROSSINGS);
+            return true;
+        } catch (SimulationFileException e) {
+            System.out.println(e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Parses the simulation file {@value FILENAME_STREETS} into columns of integers: start crossing, end crossing,
+     * length, type and speed limit.
+     *
+     * @return the columns of the file.
+     * @throws SimulationFileException if the file doesn't exist or can't be parsed.
+     */
+    public int[][] parseStreets() throws SimulationFileException {
+        return parseSimulationFile(FILENAME_STREETS, STREET_FIELDS_COUNT);
+    }
+
+    /**
+     * Parses the simulation file {@value FILENAME_CROSSINGS} into columns of integers: id and green phase duration.
      *
-     * @return the lines of the file as list of String.
+     * @return the columns of the file.
+     * @throws SimulationFileException if the file doesn't exist or can't be parsed.
      */
-    public List<String> loadStreets() {
-        return loadSimulationFile(FILENAME_STREETS);
+    public int[][] parseCrossings() throws SimulationFileException {
+        return parseSimulationFile(FILENAME_CROSSINGS, CROSSING_FIELDS_COUNT);
     }
 
     /**
-     * Loads the simulation file {@value FILENAME_CROSSINGS} and returns the lines as list of String.
-     * <p>
-     * An empty list is returned, if the file is empty.
+     * Parses the simulation file {@value FILENAME_CARS} into columns of integers: id, starting street, maximal speed
+     * and acceleration. A large uncompressed file is split into ranges of lines which are parsed concurrently.
      *
-     * @return the lines of the file as list of String.
+     * @return the columns of the file.
+     * @throws SimulationFileException if the file doesn't exist or can't be parsed.
      */
-    public List<String> loadCrossings() {
-        return loadSimulationFile(FILENAME_CROSSINGS);
+    public int[][] parseCars() throws SimulationFileException {
+        final Path filePath = findSimulationFile(FILENAME_CARS);
+        final int chunksCount;
+        try {
+            chunksCount = isCompressed(filePath) ? 1 : (int) Math.min(Runtime.getRuntime().availableProcessors(),
+                    Math.max(1, Files.size(filePath) / MIN_CHUNK_BYTES));
+        } catch (IOException e) {
+            throw new SimulationFileException(ERR_INVALID_FILE_BEHAVIOUR);
+        }
+        if (chunksCount == 1) {
+            return parseSimulationFile(FILENAME_CARS, CAR_FIELDS_COUNT);
+        }
+        final int[][] columns;
+        try {
+            columns = SimulationFileParser.parseInChunks(filePath, CAR_FIELDS_COUNT, chunksCount);
+        } catch (IOException e) {
+            throw new SimulationFileException(ERR_INVALID_FILE_BEHAVIOUR);
+        }
+        if (columns == null) {
+            throw new SimulationFileException(ERR_INVALID_FILE_BEHAVIOUR);
+        }
+        return columns;
     }
 
     /**
-     * Loads the simulation file {@value FILENAME_CARS} and returns the lines as list of String.
-     * <p>
-     * An empty list is returned, if the file is empty.
+     * Parses the simulation file with the specified file name by streaming its bytes, a compressed file is decoded
+     * while it is parsed
      *
-     * @return the lines of the file as list of String.
+     * @param fileName    the name of the file
+     * @param fieldsCount the number of integer fields of every line
+     * @return the columns of integers
+     * @throws SimulationFileException if the file doesn't exist or a line is malformed
      */
-    public List<String> loadCars() {
-        return loadSimulationFile(FILENAME_CARS);
+    private int[][] parseSimulationFile(String fileName, int fieldsCount) throws SimulationFileException {
+        final Path filePath = findSimulationFile(fileName);
+        final int[][] columns;
+        try {
+            if (isCompressed(filePath)) {
+                // The file is closed even if the gzip header can't be read
+                try (InputStream input = Files.newInputStream(filePath);
+                     ReadableByteChannel channel
+                             = Channels.newChannel(new GZIPInputStream(input, DECODER_BUFFER_SIZE))) {
+                    columns = new SimulationFileParser(fieldsCount).parse(channel);
+                }
+            } else {
+                columns = new SimulationFileParser(fieldsCount).parse(filePath);
+            }
+        } catch (IOException e) {
+            throw new SimulationFileException(ERR_INVALID_FILE_BEHAVIOUR);
+        }
+        if (columns == null) {
+            throw new SimulationFileException(ERR_INVALID_FILE_BEHAVIOUR);
+        }
+        return columns;
     }
 
     /**
-     * Loads the simulation file with the specified file name
+     * Finds the simulation file with the specified file name in the folder
      *
      * @param fileName the name of the file
-     * @return null if the file doesn't exist, the lines as list of String otherwise
+     * @return the path of the file
+     * @throws SimulationFileException if the file doesn't exist or isn't a normal file
      */
-    private List<String> loadSimulationFile(String fileName) {
-        final Path filePath = this.folderPath.resolve(Path.of(fileName));
+    private Path findSimulationFile(String fileName) throws SimulationFileException {
+        final Path filePath = resolveSimulationFile(this.folderPath, fileName);
         final File file = filePath.toFile();
 
         if (!file.exists()) {
-            System.out.printf("folder %s does not exist.%n", this.folderPath);
-            return null;
+            throw new SimulationFileException(String.format("folder %s does not exist.", this.folderPath));
         }
         if (!file.isFile()) {
-            System.out.printf("file %s is not a normal file.%n", filePath);
-            return null;
+            throw new SimulationFileException(String.format("file %s is not a normal file.", filePath));
         }
-        try {
-            return Files.readAllLines(filePath);
-        } catch (IOException e) {
-            System.out.println("Error: Invalid file behaviour.");
-            return null;
+        return filePath;
+    }
+
+    /**
+     * Resolves the simulation file with the specified file name in a folder: the plain file if it exists, otherwise
+     * its compressed variant if that exists, otherwise the (missing) plain file.
+     *
+     * @param folderPath the path of the folder.
+     * @param fileName   the name of the plain file.
+     * @return the path of the file to be read.
+     */
+    public static Path resolveSimulationFile(final Path folderPath, final String fileName) {
+        final Path filePath = folderPath.resolve(Path.of(fileName));
+        final Path compressedFilePath = folderPath.resolve(Path.of(fileName + COMPRESSED_SUFFIX));
+        if (!Files.exists(filePath) && Files.exists(compressedFilePath)) {
+            return compressedFilePath;
         }
+        return filePath;
+    }
+
+    /**
+     * Checks if a simulation file is compressed.
+     *
+     * @param filePath the path of the file.
+     * @return true if the file is gzip-compressed.
+     */
+    private static boolean isCompressed(final Path filePath) {
+        return filePath.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
     }
 
 }
@@ -0,0 +1,341 @@
+package src.edu.kit.kastel.trafficsimulation.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class parses the integers of a simulation file directly from its bytes into columns (one array per field).
+ * Every run of digits is an integer and all other characters separate them, so the three line formats
+ * ({@code 0,0,20,1}, {@code 0:3t} and {@code 0-->1:2000m,2x,40max}) are parsed by the same scanner.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class SimulationFileParser {
+    /**
+     * Size of the buffer into which the bytes of the file are read
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * Number of lines for which the columns are allocated at first
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Size of the buffer in which the line feed at the start of a byte range is searched
+     */
+    private static final int LINE_SEARCH_BUFFER_SIZE = 256;
+    /**
+     * Number of integer fields of every line (further integers are ignored)
+     */
+    private final int fieldsCount;
+    /**
+     * Arrays containing the parsed integers of every field
+     */
+    private int[][] columns;
+    /**
+     * Number of parsed lines
+     */
+    private int linesCount;
+    /**
+     * Index of the field which is parsed next in the current line
+     */
+    private int fieldIndex;
+    /**
+     * Value of the integer which is currently parsed
+     */
+    private long currentValue;
+    /**
+     * Boolean representing if an integer is currently parsed
+     */
+    private boolean parsingInteger;
+    /**
+     * Boolean representing if the current line contains any character
+     */
+    private boolean lineStarted;
+    /**
+     * Boolean representing if the last character was a carriage return (a following line feed ends no line)
+     */
+    private boolean afterCarriageReturn;
+    /**
+     * Boolean representing if a line has too few fields or an integer is too large
+     */
+    private boolean malformed;
+
+    /**
+     * Constructor of the parser
+     *
+     * @param fieldsCount number of integer fields of every line
+     */
+    public SimulationFileParser(int fieldsCount) {
+        this.fieldsCount = fieldsCount;
+    }
+
+    /**
+     * Parses a simulation file
+     *
+     * @param filePath the path of the file
+     * @return array of the parsed columns (every column contains one integer per line) or null if a line is malformed
+     * @throws IOException if the file can't be read
+     */
+    public int[][] parse(Path filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            return parse(channel);
+        }
+    }
+
+    /**
+     * Parses the bytes of a simulation file read from a channel
+     *
+     * @param channel the channel from which the file is read
+     * @return array of the parsed columns (every column contains one integer per line) or null if a line is malformed
+     * @throws IOException if the channel can't be read
+     */
+    public int[][] parse(ReadableByteChannel channel) throws IOException {
+        reset();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        while (!malformed && channel.read(buffer) >= 0) {
+            parseBytes(bytes, buffer.position());
+            buffer.clear();
+        }
+        return finish();
+    }
+
+    /**
+     * Parses a simulation file by splitting it into byte ranges which begin at the start of a line and parsing the
+     * ranges concurrently, the columns of the ranges are joined in the order of the file
+     *
+     * @param filePath    the path of the file
+     * @param fieldsCount number of integer fields of every line
+     * @param chunksCount the number of ranges into which the file is split
+     * @return array of the parsed columns (every column contains one integer per line) or null if a line is malformed
+     * @throws IOException if the file can't be read
+     */
+    public static int[][] parseInChunks(Path filePath, int fieldsCount, int chunksCount) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(chunksCount);
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long[] chunkStarts = findChunkStarts(channel, chunksCount);
+            List<Future<int[][]>> futures = new ArrayList<>();
+            for (int i = 0; i < chunksCount; i++) {
+                long start = chunkStarts[i];
+                long end = chunkStarts[i + 1];
+                futures.add(executor.submit(() -> new SimulationFileParser(fieldsCount).parse(channel, start, end)));
+            }
+            int[][][] chunksColumns = new int[chunksCount][][];
+            for (int i = 0; i < chunksCount; i++) {
+                chunksColumns[i] = futures.get(i).get();
+                if (chunksColumns[i] == null) {
+                    return null;
+                }
+            }
+            return joinColumns(chunksColumns, fieldsCount);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Finds the starts of the byte ranges of a file, every range but the first one begins behind a line feed
+     *
+     * @param channel     the channel of the file
+     * @param chunksCount the number of ranges
+     * @return array containing the start of every range followed by the size of the file
+     * @throws IOException if the file can't be read
+     */
+    private static long[] findChunkStarts(FileChannel channel, int chunksCount) throws IOException {
+        long size = channel.size();
+        long[] chunkStarts = new long[chunksCount + 1];
+        chunkStarts[chunksCount] = size;
+        ByteBuffer buffer = ByteBuffer.allocate(LINE_SEARCH_BUFFER_SIZE);
+        for (int i = 1; i < chunksCount; i++) {
+            long position = Math.max(chunkStarts[i - 1], size / chunksCount * i);
+            chunkStarts[i] = size;
+            while (position < size && chunkStarts[i] == size) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                for (int j = 0; j < read && chunkStarts[i] == size; j++) {
+                    if (buffer.get(j) == '\n') {
+                        chunkStarts[i] = position + j + 1;
+                    }
+                }
+                position += read;
+            }
+        }
+        return chunkStarts;
+    }
+
+    /**
+     * Joins the columns of consecutive byte ranges
+     *
+     * @param chunksColumns the columns of every range in the order of the file
+     * @param fieldsCount   number of integer fields of every line
+     * @return the joined columns
+     */
+    private static int[][] joinColumns(int[][][] chunksColumns, int fieldsCount) {
+        int linesCount = 0;
+        for (int[][] chunkColumns : chunksColumns) {
+            linesCount += chunkColumns[0].length;
+        }
+        int[][] columns = new int[fieldsCount][linesCount];
+        int offset = 0;
+        for (int[][] chunkColumns : chunksColumns) {
+            for (int i = 0; i < fieldsCount; i++) {
+                System.arraycopy(chunkColumns[i], 0, columns[i], offset, chunkColumns[i].length);
+            }
+            offset += chunkColumns[0].length;
+        }
+        return columns;
+    }
+
+    /**
+     * Parses a byte range of a file by positional reads, so several ranges of the same channel can be parsed at once
+     *
+     * @param channel the channel of the file
+     * @param start   the first byte of the range
+     * @param end     the byte behind the range
+     * @return array of the parsed columns of the range or null if a line is malformed
+     * @throws IOException if the file can't be read
+     */
+    private int[][] parse(FileChannel channel, long start, long end) throws IOException {
+        reset();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        long position = start;
+        while (!malformed && position < end) {
+            buffer.limit((int) Math.min(BUFFER_SIZE, end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+            parseBytes(bytes, buffer.position());
+            buffer.clear();
+        }
+        return finish();
+    }
+
+    /**
+     * Resets the parser before a file or range is parsed
+     */
+    private void reset() {
+        this.columns = new int[fieldsCount][INITIAL_CAPACITY];
+        this.linesCount = 0;
+        this.fieldIndex = 0;
+        this.currentValue = 0;
+        this.parsingInteger = false;
+        this.lineStarted = false;
+        this.afterCarriageReturn = false;
+        this.malformed = false;
+    }
+
+    /**
+     * Parses the read bytes until a line is malformed
+     *
+     * @param bytes the array containing the read bytes
+     * @param count the number of read bytes
+     */
+    private void parseBytes(byte[] bytes, int count) {
+        for (int i = 0; i < count && !malformed; i++) {
+            parseByte(bytes[i]);
+        }
+    }
+
+    /**
+     * Ends the last line and trims the columns to the number of parsed lines
+     *
+     * @return array of the parsed columns or null if a line is malformed
+     */
+    private int[][] finish() {
+        if (!malformed && lineStarted) {
+            endLine();
+        }
+        if (malformed) {
+            return null;
+        }
+        for (int i = 0; i < fieldsCount; i++) {
+            columns[i] = Arrays.copyOf(columns[i], linesCount);
+        }
+        return columns;
+    }
+
+    /**
+     * Parses a single byte: a digit continues the current integer, a line break ends the current line and every other
+     * character ends the current integer
+     *
+     * @param character the byte to be parsed
+     */
+    private void parseByte(byte character) {
+        if (character >= '0' && character <= '9') {
+            this.currentValue = currentValue * 10 + (character - '0');
+            if (currentValue > Integer.MAX_VALUE) {
+                this.malformed = true;
+            }
+            this.parsingInteger = true;
+            this.lineStarted = true;
+            this.afterCarriageReturn = false;
+        } else if (character == '\n' || character == '\r') {
+            if (!(character == '\n' && afterCarriageReturn)) {
+                endLine();
+            }
+            this.afterCarriageReturn = character == '\r';
+        } else {
+            endInteger();
+            this.lineStarted = true;
+            this.afterCarriageReturn = false;
+        }
+    }
+
+    /**
+     * Stores the currently parsed integer in the column of its field
+     */
+    private void endInteger() {
+        if (!parsingInteger) {
+            return;
+        }
+        if (fieldIndex < fieldsCount) {
+            if (linesCount == columns[fieldIndex].length) {
+                columns[fieldIndex] = Arrays.copyOf(columns[fieldIndex], linesCount * 2);
+            }
+            columns[fieldIndex][linesCount] = (int) currentValue;
+        }
+        this.fieldIndex++;
+        this.currentValue = 0;
+        this.parsingInteger = false;
+    }
+
+    /**
+     * Ends the current line, which is malformed if it contains too few integers
+     */
+    private void endLine() {
+        endInteger();
+        if (fieldIndex < fieldsCount) {
+            this.malformed = true;
+        }
+        this.linesCount++;
+        this.fieldIndex = 0;
+        this.lineStarted = false;
+    }
+}
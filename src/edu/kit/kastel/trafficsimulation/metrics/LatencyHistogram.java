@@ -0,0 +1,157 @@
+package src.edu.kit.kastel.trafficsimulation.metrics;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a histogram of latencies in nanoseconds with a fixed memory footprint: every power of two is
+ * split into sixteen buckets, so every recorded latency is counted with a relative error below 1/16 and recording
+ * never allocates
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class LatencyHistogram {
+    /**
+     * Number of bits of a latency which select the bucket within its power of two
+     */
+    private static final int SUB_BUCKET_BITS = 4;
+    /**
+     * Number of buckets within every power of two
+     */
+    private static final int SUB_BUCKETS_COUNT = 1 << SUB_BUCKET_BITS;
+    /**
+     * Number of buckets covering every non-negative long
+     */
+    private static final int BUCKETS_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS_COUNT;
+    /**
+     * Array containing the number of recorded latencies of every bucket
+     */
+    private final long[] bucketCounts = new long[BUCKETS_COUNT];
+    /**
+     * Number of recorded latencies
+     */
+    private long count;
+    /**
+     * Sum of the recorded latencies
+     */
+    private long totalNanos;
+    /**
+     * Highest recorded latency
+     */
+    private long maxNanos;
+
+    /**
+     * Records a latency
+     *
+     * @param nanos the latency in nanoseconds, negative latencies are recorded as 0
+     */
+    public void record(long nanos) {
+        long latency = Math.max(0, nanos);
+        bucketCounts[findBucket(latency)]++;
+        count++;
+        totalNanos += latency;
+        maxNanos = Math.max(maxNanos, latency);
+    }
+
+    /**
+     * Adds every latency recorded by another histogram
+     *
+     * @param histogram the histogram whose latencies are added
+     */
+    public void add(LatencyHistogram histogram) {
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            bucketCounts[i] += histogram.bucketCounts[i];
+        }
+        count += histogram.count;
+        totalNanos += histogram.totalNanos;
+        maxNanos = Math.max(maxNanos, histogram.maxNanos);
+    }
+
+    /**
+     * Removes every recorded latency
+     */
+    public void reset() {
+        Arrays.fill(bucketCounts, 0);
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * Finds the latency below or at which the specified share of the recorded latencies is
+     *
+     * @param quantile the share between 0 and 1
+     * @return the highest latency of the bucket containing the quantile (at most the highest recorded latency) or 0
+     * if no latency is recorded
+     */
+    public long getQuantile(double quantile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long counted = 0;
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            counted += bucketCounts[i];
+            if (counted >= rank) {
+                return Math.min(maxNanos, findBucketStart(i + 1) - 1);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Finds the bucket of a latency: latencies below 32 have a bucket each, every higher power of two is split into
+     * sixteen buckets by the four bits below its leading one
+     *
+     * @param nanos the non-negative latency
+     * @return the index of the bucket
+     */
+    private static int findBucket(long nanos) {
+        int shift = Math.max(0, Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS_COUNT + (int) (nanos >>> shift);
+    }
+
+    /**
+     * Finds the lowest latency of a bucket
+     *
+     * @param bucket the index of the bucket (the number of buckets for the end of the last bucket)
+     * @return the lowest latency counted in the bucket
+     */
+    private static long findBucketStart(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS_COUNT - 1;
+        if (shift + SUB_BUCKET_BITS >= Long.SIZE - 1) {
+            return Long.MAX_VALUE;
+        }
+        return (long) (bucket % SUB_BUCKETS_COUNT + SUB_BUCKETS_COUNT) << shift;
+    }
+
+    /**
+     * Getter for the number of recorded latencies
+     *
+     * @return the number of recorded latencies
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter for the sum of the recorded latencies
+     *
+     * @return the sum in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Getter for the highest recorded latency
+     *
+     * @return the highest latency in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+}
@@ -0,0 +1,87 @@
+package src.edu.kit.kastel.trafficsimulation.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This class represents the flight recorder event of a stage of loading a network. The event is only committed while
+ * a recording is running and the stage takes at least the threshold, otherwise it only measures the duration.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+@Name("trafficsimulation.LoadStage")
+@Label("Load Stage")
+@Category({"Traffic Simulation", "Loading"})
+@Description("Stage of loading a network: cache lookup, reading, topology, validation or placement")
+@Threshold("1 ms")
+@StackTrace(false)
+public class LoadStageEvent extends Event {
+    /**
+     * Integer representing a count which isn't known yet at the end of the stage
+     */
+    public static final int UNKNOWN_COUNT = -1;
+    /**
+     * Name of the stage
+     */
+    @Label("Stage")
+    private String stage;
+    /**
+     * Folder from which the network is loaded
+     */
+    @Label("Folder")
+    private String folder;
+    /**
+     * Number of cars of the network
+     */
+    @Label("Cars")
+    private int carsCount;
+    /**
+     * Number of streets of the network
+     */
+    @Label("Streets")
+    private int streetsCount;
+    /**
+     * Start of the stage, not recorded (transient fields aren't part of the event)
+     */
+    private transient long startNanos;
+
+    /**
+     * Starts a stage
+     *
+     * @return the event of the stage
+     */
+    public static LoadStageEvent start() {
+        LoadStageEvent event = new LoadStageEvent();
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the stage and commits its event if it is recorded
+     *
+     * @param stage        the name of the stage
+     * @param folder       the folder from which the network is loaded
+     * @param carsCount    the number of cars or {@value UNKNOWN_COUNT}
+     * @param streetsCount the number of streets or {@value UNKNOWN_COUNT}
+     * @return the duration of the stage in nanoseconds
+     */
+    public long finish(String stage, String folder, int carsCount, int streetsCount) {
+        long durationNanos = System.nanoTime() - startNanos;
+        end();
+        if (shouldCommit()) {
+            this.stage = stage;
+            this.folder = folder;
+            this.carsCount = carsCount;
+            this.streetsCount = streetsCount;
+            commit();
+        }
+        return durationNanos;
+    }
+}
@@ -0,0 +1,83 @@
+package src.edu.kit.kastel.trafficsimulation.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * This class represents the flight recorder event of one simulate command, which simulates a batch of ticks
+ *
+ * @author unkno
+ * @version 1.0
+ */
+@Name("trafficsimulation.SimulateBatch")
+@Label("Simulate Batch")
+@Category({"Traffic Simulation", "Simulation"})
+@Description("Batch of ticks simulated by one simulate command")
+@Threshold("1 ms")
+@StackTrace(false)
+public class SimulateBatchEvent extends Event {
+    /**
+     * Event which is never committed, only used to check if the event type is enabled without allocating
+     */
+    private static final SimulateBatchEvent ENABLED_CHECK = new SimulateBatchEvent();
+    /**
+     * Number of simulated ticks (including skipped ticks)
+     */
+    @Label("Ticks")
+    private long ticksCount;
+    /**
+     * Number of ticks skipped without updating the streets
+     */
+    @Label("Skipped Ticks")
+    private long ticksSkipped;
+    /**
+     * Tick of the network before the batch
+     */
+    @Label("Start Tick")
+    private long startTick;
+    /**
+     * Number of cars of the network
+     */
+    @Label("Cars")
+    private int carsCount;
+    /**
+     * Number of streets of the network
+     */
+    @Label("Streets")
+    private int streetsCount;
+
+    /**
+     * Checks if a running recording records events of this type
+     *
+     * @return true if the event type is enabled
+     */
+    public static boolean isRecorded() {
+        return ENABLED_CHECK.isEnabled();
+    }
+
+    /**
+     * Ends the batch and commits its event if it is recorded
+     *
+     * @param ticksCount   the number of simulated ticks
+     * @param ticksSkipped the number of ticks skipped without updating the streets
+     * @param startTick    the tick of the network before the batch
+     * @param carsCount    the number of cars
+     * @param streetsCount the number of streets
+     */
+    public void finish(long ticksCount, long ticksSkipped, long startTick, int carsCount, int streetsCount) {
+        end();
+        if (shouldCommit()) {
+            this.ticksCount = ticksCount;
+            this.ticksSkipped = ticksSkipped;
+            this.startTick = startTick;
+            this.carsCount = carsCount;
+            this.streetsCount = streetsCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package src.edu.kit.kastel.trafficsimulation.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents the statistics collected while ticks are simulated: the number of cars which moved, overtook,
+ * turned at a crossing or were blocked by a red light and the latencies of the street and crossing updates. Only
+ * updated cars are counted, cars sleeping in the event engine and skipped ticks aren't. The car counters may be
+ * incremented by multiple threads, the latencies are recorded by the thread simulating the ticks.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class SimulationStatistics {
+    /**
+     * Number of car updates in which the car moved
+     */
+    private final LongAdder carsMoved = new LongAdder();
+    /**
+     * Number of car updates in which the car overtook the car in front of it
+     */
+    private final LongAdder carsOvertook = new LongAdder();
+    /**
+     * Number of car updates in which the car turned onto another street
+     */
+    private final LongAdder carsTurned = new LongAdder();
+    /**
+     * Number of car updates in which the car waited at the end of its street for a red light
+     */
+    private final LongAdder carsBlockedAtRed = new LongAdder();
+    /**
+     * Latencies of the street updates, one per simulated tick
+     */
+    private final LatencyHistogram streetUpdateLatencies = new LatencyHistogram();
+    /**
+     * Latencies of the crossing updates, one per simulated tick
+     */
+    private final LatencyHistogram crossingUpdateLatencies = new LatencyHistogram();
+    /**
+     * Number of ticks skipped without updating the streets
+     */
+    private long ticksSkipped;
+
+    /**
+     * Counts a car which moved during its update
+     */
+    public void countCarMoved() {
+        carsMoved.increment();
+    }
+
+    /**
+     * Counts a car which overtook the car in front of it
+     */
+    public void countCarOvertook() {
+        carsOvertook.increment();
+    }
+
+    /**
+     * Counts a car which turned onto another street
+     */
+    public void countCarTurned() {
+        carsTurned.increment();
+    }
+
+    /**
+     * Counts a car which waited at the end of its street for a red light
+     */
+    public void countCarBlockedAtRed() {
+        carsBlockedAtRed.increment();
+    }
+
+    /**
+     * Records the latency of a street update
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void recordStreetUpdate(long nanos) {
+        streetUpdateLatencies.record(nanos);
+    }
+
+    /**
+     * Records the latency of a crossing update
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void recordCrossingUpdate(long nanos) {
+        crossingUpdateLatencies.record(nanos);
+    }
+
+    /**
+     * Counts ticks which were skipped without updating the streets
+     *
+     * @param ticksCount the number of skipped ticks
+     */
+    public void countTicksSkipped(long ticksCount) {
+        ticksSkipped += ticksCount;
+    }
+
+    /**
+     * Removes every collected statistic
+     */
+    public void reset() {
+        carsMoved.reset();
+        carsOvertook.reset();
+        carsTurned.reset();
+        carsBlockedAtRed.reset();
+        streetUpdateLatencies.reset();
+        crossingUpdateLatencies.reset();
+        ticksSkipped = 0;
+    }
+
+    /**
+     * Getter for the number of car updates in which the car moved
+     *
+     * @return the number of moved cars
+     */
+    public long getCarsMoved() {
+        return carsMoved.sum();
+    }
+
+    /**
+     * Getter for the number of car updates in which the car overtook
+     *
+     * @return the number of overtaking cars
+     */
+    public long getCarsOvertook() {
+        return carsOvertook.sum();
+    }
+
+    /**
+     * Getter for the number of car updates in which the car turned
+     *
+     * @return the number of turning cars
+     */
+    public long getCarsTurned() {
+        return carsTurned.sum();
+    }
+
+    /**
+     * Getter for the number of car updates in which the car waited for a red light
+     *
+     * @return the number of blocked cars
+     */
+    public long getCarsBlockedAtRed() {
+        return carsBlockedAtRed.sum();
+    }
+
+    /**
+     * Getter for the latencies of the street updates
+     *
+     * @return the histogram of the latencies
+     */
+    public LatencyHistogram getStreetUpdateLatencies() {
+        return streetUpdateLatencies;
+    }
+
+    /**
+     * Getter for the latencies of the crossing updates
+     *
+     * @return the histogram of the latencies
+     */
+    public LatencyHistogram getCrossingUpdateLatencies() {
+        return crossingUpdateLatencies;
+    }
+
+    /**
+     * Getter for the number of ticks skipped without updating the streets
+     *
+     * @return the number of skipped ticks
+     */
+    public long getTicksSkipped() {
+        return ticksSkipped;
+    }
+}
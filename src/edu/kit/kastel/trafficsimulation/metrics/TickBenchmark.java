@@ -0,0 +1,235 @@
+package src.edu.kit.kastel.trafficsimulation.metrics;
+
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Lane;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.NetworkTopology;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.CrossingUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.StreetUpdater;
+import src.edu.kit.kastel.trafficsimulation.trafficUpdaters.TickSimulator;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * This class measures the tick throughput of a network on a copy of its state, so the simulated network stays
+ * unchanged. Every measured tick is timed on its own, the memory allocated by all threads and the time spent in
+ * garbage collection are measured for the whole run.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class TickBenchmark {
+    /**
+     * Integer representing a measurement which isn't supported by the virtual machine
+     */
+    public static final long NOT_SUPPORTED = -1;
+    /**
+     * Store containing the state of the cars to be copied
+     */
+    private final CarStateStore carStates;
+    /**
+     * Array containing the lanes of the streets to be copied
+     */
+    private final Lane[] lanesArray;
+    /**
+     * Array containing all streets sorted by id
+     */
+    private final Street[] streetsArray;
+    /**
+     * Array containing all crossings sorted by id
+     */
+    private final Crossing[] crossingsArray;
+    /**
+     * Topology of the network
+     */
+    private final NetworkTopology topology;
+    /**
+     * Tick from which the copy is simulated
+     */
+    private final long currentTick;
+    /**
+     * Histogram of the latencies of the measured ticks
+     */
+    private final LatencyHistogram tickLatencies = new LatencyHistogram();
+    /**
+     * Duration of all measured ticks
+     */
+    private long elapsedNanos;
+    /**
+     * Number of bytes allocated by all threads during the measured ticks
+     */
+    private long allocatedBytes;
+    /**
+     * Number of garbage collections during the measured ticks
+     */
+    private long gcCount;
+    /**
+     * Time spent in garbage collections during the measured ticks
+     */
+    private long gcMillis;
+
+    /**
+     * Constructor of the tick benchmark
+     *
+     * @param carStates      store containing the state of the cars, copied for every run
+     * @param lanesArray     array containing the lanes of the streets, copied for every run
+     * @param streetsArray   array containing all streets sorted by id
+     * @param crossingsArray array containing all crossings sorted by id
+     * @param topology       topology of the network
+     * @param currentTick    tick from which the copy is simulated
+     */
+    public TickBenchmark(CarStateStore carStates, Lane[] lanesArray, Street[] streetsArray,
+                         Crossing[] crossingsArray, NetworkTopology topology, long currentTick) {
+        this.carStates = carStates;
+        this.lanesArray = lanesArray;
+        this.streetsArray = streetsArray;
+        this.crossingsArray = crossingsArray;
+        this.topology = topology;
+        this.currentTick = currentTick;
+    }
+
+    /**
+     * Simulates the warm-up ticks and measures the following ticks on a fresh copy of the network's state
+     *
+     * @param streetUpdater new object that updates the streets of the copy
+     * @param warmUpTicks   the number of ticks simulated before the measurement
+     * @param ticksCount    the number of measured ticks
+     */
+    public void run(StreetUpdater streetUpdater, long warmUpTicks, long ticksCount) {
+        Lane[] copiedLanesArray = new Lane[lanesArray.length];
+        for (int i = 0; i < lanesArray.length; i++) {
+            copiedLanesArray[i] = lanesArray[i].copy();
+        }
+        CrossingUpdater crossingUpdater = new CrossingUpdater();
+        crossingUpdater.setCrossingsArray(crossingsArray);
+        crossingUpdater.setTopology(topology);
+        crossingUpdater.setCurrentTick(currentTick);
+        streetUpdater.setCarStates(carStates.copy());
+        streetUpdater.setStreetsArray(streetsArray);
+        streetUpdater.setCrossingUpdater(crossingUpdater);
+        streetUpdater.setLanesArray(copiedLanesArray);
+        streetUpdater.setTopology(topology);
+        TickSimulator tickSimulator = new TickSimulator(streetUpdater, crossingUpdater);
+        tickSimulator.simulateTicks(warmUpTicks);
+
+        tickLatencies.reset();
+        long startAllocatedBytes = measureAllocatedBytes();
+        long startGcCount = measureGcCount();
+        long startGcMillis = measureGcMillis();
+        long startNanos = System.nanoTime();
+        for (long tick = 0; tick < ticksCount; tick++) {
+            long tickStartNanos = System.nanoTime();
+            tickSimulator.simulateTicks(1);
+            tickLatencies.record(System.nanoTime() - tickStartNanos);
+        }
+        this.elapsedNanos = System.nanoTime() - startNanos;
+        long endAllocatedBytes = measureAllocatedBytes();
+        this.allocatedBytes = startAllocatedBytes == NOT_SUPPORTED || endAllocatedBytes == NOT_SUPPORTED
+                ? NOT_SUPPORTED : endAllocatedBytes - startAllocatedBytes;
+        this.gcCount = measureGcCount() - startGcCount;
+        this.gcMillis = measureGcMillis() - startGcMillis;
+    }
+
+    /**
+     * Measures the number of bytes allocated by all live threads since they started
+     *
+     * @return the number of bytes or {@value NOT_SUPPORTED} if the virtual machine doesn't measure it
+     */
+    private static long measureAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean allocationBean)
+                || !allocationBean.isThreadAllocatedMemorySupported()
+                || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return NOT_SUPPORTED;
+        }
+        long bytes = 0;
+        for (long threadBytes : allocationBean.getThreadAllocatedBytes(allocationBean.getAllThreadIds())) {
+            // Threads which ended in the meantime are reported as -1
+            bytes += Math.max(0, threadBytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * Measures the number of garbage collections since the virtual machine started
+     *
+     * @return the number of collections of all collectors
+     */
+    private static long measureGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collectorBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, collectorBean.getCollectionCount());
+        }
+        return count;
+    }
+
+    /**
+     * Measures the time spent in garbage collections since the virtual machine started
+     *
+     * @return the time in milliseconds of all collectors
+     */
+    private static long measureGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collectorBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, collectorBean.getCollectionTime());
+        }
+        return millis;
+    }
+
+    /**
+     * Getter for the number of cars of the network
+     *
+     * @return the number of cars
+     */
+    public int getCarsCount() {
+        return carStates.size();
+    }
+
+    /**
+     * Getter for the latencies of the measured ticks
+     *
+     * @return the histogram of the latencies
+     */
+    public LatencyHistogram getTickLatencies() {
+        return tickLatencies;
+    }
+
+    /**
+     * Getter for the duration of all measured ticks
+     *
+     * @return the duration in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Getter for the number of bytes allocated during the measured ticks
+     *
+     * @return the number of bytes or {@value NOT_SUPPORTED} if the virtual machine doesn't measure it
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * Getter for the number of garbage collections during the measured ticks
+     *
+     * @return the number of collections
+     */
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * Getter for the time spent in garbage collections during the measured ticks
+     *
+     * @return the time in milliseconds
+     */
+    public long getGcMillis() {
+        return gcMillis;
+    }
+}
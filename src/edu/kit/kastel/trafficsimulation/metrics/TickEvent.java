@@ -0,0 +1,86 @@
+package src.edu.kit.kastel.trafficsimulation.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * This class represents the flight recorder event of a sampled tick, split into the street and crossing updates
+ *
+ * @author unkno
+ * @version 1.0
+ */
+@Name("trafficsimulation.Tick")
+@Label("Tick")
+@Category({"Traffic Simulation", "Simulation"})
+@Description("Sampled tick of the simulation")
+@Threshold("1 ms")
+@StackTrace(false)
+public class TickEvent extends Event {
+    /**
+     * Event which is never committed, only used to check if the event type is enabled without allocating
+     */
+    private static final TickEvent ENABLED_CHECK = new TickEvent();
+    /**
+     * Number of the tick
+     */
+    @Label("Tick")
+    private long tick;
+    /**
+     * Duration of the street update
+     */
+    @Label("Street Update")
+    @Timespan(Timespan.NANOSECONDS)
+    private long streetUpdateNanos;
+    /**
+     * Duration of the crossing update
+     */
+    @Label("Crossing Update")
+    @Timespan(Timespan.NANOSECONDS)
+    private long crossingUpdateNanos;
+    /**
+     * Number of cars of the network
+     */
+    @Label("Cars")
+    private int carsCount;
+    /**
+     * Number of streets of the network
+     */
+    @Label("Streets")
+    private int streetsCount;
+
+    /**
+     * Checks if a running recording records events of this type
+     *
+     * @return true if the event type is enabled
+     */
+    public static boolean isRecorded() {
+        return ENABLED_CHECK.isEnabled();
+    }
+
+    /**
+     * Ends the tick and commits its event if it is recorded
+     *
+     * @param tick                the number of the tick
+     * @param streetUpdateNanos   the duration of the street update in nanoseconds
+     * @param crossingUpdateNanos the duration of the crossing update in nanoseconds
+     * @param carsCount           the number of cars
+     * @param streetsCount        the number of streets
+     */
+    public void finish(long tick, long streetUpdateNanos, long crossingUpdateNanos, int carsCount, int streetsCount) {
+        end();
+        if (shouldCommit()) {
+            this.tick = tick;
+            this.streetUpdateNanos = streetUpdateNanos;
+            this.crossingUpdateNanos = crossingUpdateNanos;
+            this.carsCount = carsCount;
+            this.streetsCount = streetsCount;
+            commit();
+        }
+    }
+}
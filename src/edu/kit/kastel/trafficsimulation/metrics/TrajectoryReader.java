@@ -0,0 +1,242 @@
+package src.edu.kit.kastel.trafficsimulation.metrics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class reads a trajectory file written by the {@link TrajectoryRecorder} block by block. Started on its own, it
+ * prints the rows of a trajectory file as comma-separated values.
+ * <p>
+ * Usage: {@code java src.edu.kit.kastel.trafficsimulation.metrics.TrajectoryReader <trajectory file>}
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class TrajectoryReader implements AutoCloseable {
+    /**
+     * Error in case the file isn't a trajectory file
+     */
+    private static final String ERR_NO_TRAJECTORY_FILE = "Not a trajectory file.";
+    /**
+     * Error in case the file ends within a block
+     */
+    private static final String ERR_TRUNCATED = "Trajectory file is truncated.";
+    /**
+     * Message in case of wrong arguments
+     */
+    private static final String MSG_USAGE = "Usage: TrajectoryReader <trajectory file>";
+    /**
+     * Header of the printed comma-separated values
+     */
+    private static final String MSG_CSV_HEADER = "tick,car,street,position,speed";
+    /**
+     * Separator of the printed values
+     */
+    private static final char CSV_SEPARATOR = ',';
+    /**
+     * Channel of the trajectory file
+     */
+    private final FileChannel channel;
+    /**
+     * Buffer of the block which is read
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(TrajectoryRecorder.BLOCK_HEADER_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    /**
+     * Tick of the current block
+     */
+    private long tick;
+    /**
+     * Number of rows of the current block
+     */
+    private int rowsCount;
+    /**
+     * Column of the car ids of the current block
+     */
+    private int[] carIDs = new int[0];
+    /**
+     * Column of the streets of the current block
+     */
+    private int[] streets = new int[0];
+    /**
+     * Column of the positions of the current block
+     */
+    private int[] positions = new int[0];
+    /**
+     * Column of the speeds of the current block
+     */
+    private int[] speeds = new int[0];
+
+    /**
+     * Constructor of the trajectory reader, checks the header of the file
+     *
+     * @param filePath the path of the trajectory file
+     * @throws IOException if the file can't be read or isn't a trajectory file
+     */
+    public TrajectoryReader(Path filePath) throws IOException {
+        this.channel = FileChannel.open(filePath, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(TrajectoryRecorder.FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(header) || header.getInt() != TrajectoryRecorder.MAGIC
+                || header.getInt() != TrajectoryRecorder.VERSION) {
+            channel.close();
+            throw new IOException(ERR_NO_TRAJECTORY_FILE);
+        }
+    }
+
+    /**
+     * Prints the rows of a trajectory file
+     *
+     * @param args the path of the trajectory file
+     * @throws IOException if the file can't be read or isn't a trajectory file
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.out.println(MSG_USAGE);
+            return;
+        }
+        StringBuilder output = new StringBuilder(MSG_CSV_HEADER).append(System.lineSeparator());
+        try (TrajectoryReader reader = new TrajectoryReader(Path.of(args[0]))) {
+            while (reader.nextBlock()) {
+                for (int row = 0; row < reader.getRowsCount(); row++) {
+                    output.append(reader.getTick()).append(CSV_SEPARATOR).append(reader.getCarID(row))
+                            .append(CSV_SEPARATOR).append(reader.getStreet(row)).append(CSV_SEPARATOR)
+                            .append(reader.getPosition(row)).append(CSV_SEPARATOR).append(reader.getSpeed(row))
+                            .append(System.lineSeparator());
+                }
+                System.out.print(output);
+                output.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * Reads the next block of the file
+     *
+     * @return false if the file has ended
+     * @throws IOException if the file can't be read or ends within the block
+     */
+    public boolean nextBlock() throws IOException {
+        buffer.clear().limit(TrajectoryRecorder.BLOCK_HEADER_BYTES);
+        if (channel.read(buffer) <= 0 && buffer.position() == 0) {
+            return false;
+        }
+        if (!readFully(buffer)) {
+            throw new IOException(ERR_TRUNCATED);
+        }
+        this.tick = buffer.getLong();
+        this.rowsCount = buffer.getInt();
+        int columnsBytes = rowsCount * TrajectoryRecorder.ROW_BYTES;
+        if (rowsCount < 0 || columnsBytes < 0) {
+            throw new IOException(ERR_NO_TRAJECTORY_FILE);
+        }
+        if (buffer.capacity() < columnsBytes) {
+            this.buffer = ByteBuffer.allocate(columnsBytes).order(ByteOrder.LITTLE_ENDIAN);
+            this.carIDs = new int[rowsCount];
+            this.streets = new int[rowsCount];
+            this.positions = new int[rowsCount];
+            this.speeds = new int[rowsCount];
+        }
+        buffer.clear().limit(columnsBytes);
+        if (!readFully(buffer)) {
+            throw new IOException(ERR_TRUNCATED);
+        }
+        buffer.asIntBuffer().get(carIDs, 0, rowsCount).get(streets, 0, rowsCount);
+        buffer.position(2 * rowsCount * Integer.BYTES);
+        for (int row = 0; row < rowsCount; row++) {
+            positions[row] = buffer.getShort();
+        }
+        for (int row = 0; row < rowsCount; row++) {
+            speeds[row] = buffer.get();
+        }
+        return true;
+    }
+
+    /**
+     * Reads from the file until the buffer is full and flips it
+     *
+     * @param target the buffer to be filled
+     * @return false if the file has ended before the buffer was full
+     * @throws IOException if the file can't be read
+     */
+    private boolean readFully(ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                return false;
+            }
+        }
+        target.flip();
+        return true;
+    }
+
+    /**
+     * Closes the file
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Getter for the tick of the current block
+     *
+     * @return the number of ticks simulated before the states of the block
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Getter for the number of rows of the current block
+     *
+     * @return the number of rows
+     */
+    public int getRowsCount() {
+        return rowsCount;
+    }
+
+    /**
+     * Getter for the id of the car of a row
+     *
+     * @param row the index of the row in the current block
+     * @return the id of the car
+     */
+    public int getCarID(int row) {
+        return carIDs[row];
+    }
+
+    /**
+     * Getter for the street of a row
+     *
+     * @param row the index of the row in the current block
+     * @return the id of the street on which the car is
+     */
+    public int getStreet(int row) {
+        return streets[row];
+    }
+
+    /**
+     * Getter for the position of a row
+     *
+     * @param row the index of the row in the current block
+     * @return the position of the car on its street
+     */
+    public int getPosition(int row) {
+        return positions[row];
+    }
+
+    /**
+     * Getter for the speed of a row
+     *
+     * @param row the index of the row in the current block
+     * @return the speed of the car
+     */
+    public int getSpeed(int row) {
+        return speeds[row];
+    }
+}
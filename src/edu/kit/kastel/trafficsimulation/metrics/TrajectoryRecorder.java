@@ -0,0 +1,244 @@
+package src.edu.kit.kastel.trafficsimulation.metrics;
+
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * This class records the trajectories of the cars (street, position and speed after every updated tick) into a
+ * binary columnar file. The states are copied into a ring of preallocated buffers, full buffers are written by a
+ * background thread, so recording only blocks if the writer falls behind by the whole ring.
+ * <p>
+ * The file starts with the magic number and the version, followed by blocks of rows of the same tick: the tick
+ * (long), the number of rows (int) and the columns car id (int), street (int), position (short, as streets are at
+ * most 1000 long) and speed (byte, as cars drive at most 40). All values are little-endian. Ticks in which every car
+ * stays blocked are skipped by the tick simulator and aren't recorded, as the state doesn't change in them. Cycles of
+ * the network's state aren't skipped while recording, so every tick in which a car moves is recorded.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class TrajectoryRecorder implements AutoCloseable {
+    /**
+     * Magic number at the beginning of a trajectory file ("TRAJ")
+     */
+    public static final int MAGIC = 0x5452414A;
+    /**
+     * Version of the file format
+     */
+    public static final int VERSION = 1;
+    /**
+     * Number of bytes of the file's header
+     */
+    static final int FILE_HEADER_BYTES = 2 * Integer.BYTES;
+    /**
+     * Number of bytes of a block's header
+     */
+    static final int BLOCK_HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    /**
+     * Number of bytes of a row (car id, street, position and speed)
+     */
+    static final int ROW_BYTES = 2 * Integer.BYTES + Short.BYTES + Byte.BYTES;
+    /**
+     * Number of bytes of every buffer
+     */
+    private static final int BUFFER_BYTES = 1 << 20;
+    /**
+     * Number of buffers in the ring
+     */
+    private static final int BUFFERS_COUNT = 4;
+    /**
+     * Buffer passed to the writer to end the recording
+     */
+    private static final ByteBuffer END_OF_RECORDING = ByteBuffer.allocate(0);
+    /**
+     * Channel of the trajectory file
+     */
+    private final FileChannel channel;
+    /**
+     * Interval of the car indices which are recorded (1 for every car)
+     */
+    private final int samplingInterval;
+    /**
+     * Buffers which may be filled
+     */
+    private final BlockingQueue<ByteBuffer> freeBuffers = new ArrayBlockingQueue<>(BUFFERS_COUNT);
+    /**
+     * Buffers waiting to be written, followed by {@link #END_OF_RECORDING} at the end
+     */
+    private final BlockingQueue<ByteBuffer> fullBuffers = new ArrayBlockingQueue<>(BUFFERS_COUNT + 1);
+    /**
+     * Thread writing the full buffers into the file
+     */
+    private final Thread writerThread;
+    /**
+     * Buffer which is currently filled
+     */
+    private ByteBuffer currentBuffer;
+    /**
+     * First error of the writer, null if every buffer was written
+     */
+    private volatile IOException writeError;
+
+    /**
+     * Constructor of the trajectory recorder, creates or truncates the file and starts the writer
+     *
+     * @param filePath         the path of the trajectory file
+     * @param samplingInterval the interval of the recorded car indices (1 for every car)
+     * @throws IOException if the file can't be written
+     */
+    public TrajectoryRecorder(Path filePath, int samplingInterval) throws IOException {
+        this.samplingInterval = samplingInterval;
+        this.channel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        for (int i = 0; i < BUFFERS_COUNT - 1; i++) {
+            freeBuffers.add(ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN));
+        }
+        this.currentBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.writerThread = new Thread(this::writeBuffers, "trajectory-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Records the state of the sampled cars after a tick
+     *
+     * @param tick      the number of ticks simulated so far
+     * @param carStates the store containing the state of every car
+     */
+    public void record(long tick, CarStateStore carStates) {
+        int carIndex = 0;
+        while (carIndex < carStates.size()) {
+            if (currentBuffer.remaining() < BLOCK_HEADER_BYTES + ROW_BYTES) {
+                passCurrentBuffer();
+                this.currentBuffer = take(freeBuffers);
+            }
+            int sampledCarsCount = (carStates.size() - carIndex + samplingInterval - 1) / samplingInterval;
+            int rowsCount = Math.min(sampledCarsCount, (currentBuffer.remaining() - BLOCK_HEADER_BYTES) / ROW_BYTES);
+            currentBuffer.putLong(tick).putInt(rowsCount);
+            // The columns are filled side by side with absolute writes
+            int idsOffset = currentBuffer.position();
+            int streetsOffset = idsOffset + rowsCount * Integer.BYTES;
+            int positionsOffset = streetsOffset + rowsCount * Integer.BYTES;
+            int speedsOffset = positionsOffset + rowsCount * Short.BYTES;
+            for (int row = 0; row < rowsCount; row++) {
+                currentBuffer.putInt(idsOffset + row * Integer.BYTES, carStates.getId(carIndex));
+                currentBuffer.putInt(streetsOffset + row * Integer.BYTES, carStates.getCurrentStreet(carIndex));
+                currentBuffer.putShort(positionsOffset + row * Short.BYTES,
+                        (short) carStates.getCurrentPosition(carIndex));
+                currentBuffer.put(speedsOffset + row, (byte) carStates.getCurrentSpeed(carIndex));
+                carIndex += samplingInterval;
+            }
+            currentBuffer.position(idsOffset + rowsCount * ROW_BYTES);
+        }
+    }
+
+    /**
+     * Writes the remaining states, waits for the writer and closes the file
+     *
+     * @throws IOException if a buffer couldn't be written or the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (currentBuffer.position() > 0) {
+            passCurrentBuffer();
+        }
+        put(fullBuffers, END_OF_RECORDING);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+
+    /**
+     * Passes the current buffer to the writer
+     */
+    private void passCurrentBuffer() {
+        currentBuffer.flip();
+        put(fullBuffers, currentBuffer);
+    }
+
+    /**
+     * Writes the full buffers into the file and returns them to the free buffers until the recording ends, runs on
+     * the writer thread
+     */
+    private void writeBuffers() {
+        ByteBuffer buffer = take(fullBuffers);
+        while (buffer != END_OF_RECORDING) {
+            try {
+                while (writeError == null && buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                this.writeError = e;
+            }
+            buffer.clear();
+            put(freeBuffers, buffer);
+            buffer = take(fullBuffers);
+        }
+    }
+
+    /**
+     * Takes a buffer from a queue, waiting until one is available
+     *
+     * @param queue the queue
+     * @return the buffer
+     */
+    private static ByteBuffer take(BlockingQueue<ByteBuffer> queue) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queue.take();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Puts a buffer into a queue, waiting until it has space
+     *
+     * @param queue  the queue
+     * @param buffer the buffer
+     */
+    private static void put(BlockingQueue<ByteBuffer> queue, ByteBuffer buffer) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    queue.put(buffer);
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,59 +1,30 @@
 package src.edu.kit.kastel.trafficsimulation.trafficObjects;
 
 /**
- * This class represents a car in the network
+ * This class represents a car in the network, its state is kept in a {@link CarStateStore}
  *
  * @author unkno
  * @version 1.0
  */
 public class Car extends TrafficObject {
     /**
-     * Integer representing the id of the car
+     * Store containing the state of the car
      */
-    private final int id;
+    private final CarStateStore carStates;
     /**
-     * Integer representing the maximal speed of the car
+     * Integer representing the index of the car in the store
      */
-    private final int maxSpeed;
-    /**
-     * Integer representing the acceleration of the car
-     */
-    private final int acceleration;
-    /**
-     * Integer representing the street on which the car is currently on
-     */
-    private int currentStreet;
-    /**
-     * Integer representing the current position of the car on the street
-     */
-    private int currentPosition;
-    /**
-     * Integer representing the current speed of the car
-     */
-    private int currentSpeed = 0;
-    /**
-     * Integer representing the current direction of the car
-     */
-    private int currentDirection = 0;
-    /**
-     * Boolean representing if the car has moved
-     */
-    private boolean carHasMoved = false;
+    private final int index;
 
     /**
-     * Constructor of the car object
+     * Constructor of the car object (a view on the car's state in the store)
      *
-     * @param id           id of the car
-     * @param startStreet  starting street of the car
-     * @param maxSpeed     the maximal speed of the car
-     * @param acceleration the acceleration of the car
+     * @param carStates store containing the state of the car
+     * @param index     index of the car in the store
      */
-
-    public Car(int id, int startStreet, int maxSpeed, int acceleration) {
-        this.id = id;
-        this.currentStreet = startStreet;
-        this.maxSpeed = maxSpeed;
-        this.acceleration = acceleration;
+    public Car(CarStateStore carStates, int index) {
+        this.carStates = carStates;
+        this.index = index;
     }
 
     /**
@@ -62,7 +33,7 @@ public Car(int id, int startStreet, int maxSpeed, int acceleration) {
      * @return car's id
      */
     public int getId() {
-        return this.id;
+        return this.carStates.getId(this.index);
     }
 
     /**
@@ -72,7 +43,7 @@ public int getId() {
      */
 
     public int getMaxSpeed() {
-        return this.maxSpeed;
+        return this.carStates.getMaxSpeed(this.index);
     }
 
     /**
@@ -81,7 +52,7 @@ public int getMaxSpeed() {
      * @return car's acceleration
      */
     public int getAcceleration() {
-        return this.acceleration;
+        return this.carStates.getAcceleration(this.index);
     }
 
     /**
@@ -91,7 +62,7 @@ public int getAcceleration() {
      */
 
     public int getCurrentStreet() {
-        return this.currentStreet;
+        return this.carStates.getCurrentStreet(this.index);
     }
 
     /**
@@ -101,7 +72,7 @@ public int getCurrentStreet() {
      */
 
     public void setCurrentStreet(int currentStreet) {
-        this.currentStreet = currentStreet;
+        this.carStates.setCurrentStreet(this.index, currentStreet);
     }
 
     /**
@@ -111,7 +82,7 @@ public void setCurrentStreet(int currentStreet) {
      */
 
     public int getCurrentPosition() {
-        return this.currentPosition;
+        return this.carStates.getCurrentPosition(this.index);
     }
 
     /**
@@ -121,7 +92,7 @@ public int getCurrentPosition() {
      */
 
     public void setCurrentPosition(int currentPosition) {
-        this.currentPosition = currentPosition;
+        this.carStates.setCurrentPosition(this.index, currentPosition);
     }
 
     /**
@@ -131,7 +102,7 @@ public void setCurrentPosition(int currentPosition) {
      */
 
     public int getCurrentSpeed() {
-        return this.currentSpeed;
+        return this.carStates.getCurrentSpeed(this.index);
     }
 
     /**
@@ -141,7 +112,7 @@ public int getCurrentSpeed() {
      */
 
     public void setCurrentSpeed(int currentSpeed) {
-        this.currentSpeed = currentSpeed;
+        this.carStates.setCurrentSpeed(this.index, currentSpeed);
     }
 
     /**
@@ -151,7 +122,7 @@ public void setCurrentSpeed(int currentSpeed) {
      */
 
     public int getCurrentDirection() {
-        return this.currentDirection;
+        return this.carStates.getCurrentDirection(this.index);
     }
 
     /**
@@ -161,7 +132,7 @@ public int getCurrentDirection() {
      */
 
     public void setCurrentDirection(int currentDirection) {
-        this.currentDirection = currentDirection;
+        this.carStates.setCurrentDirection(this.index, currentDirection);
     }
 
     /**
@@ -171,7 +142,7 @@ public void setCurrentDirection(int currentDirection) {
      */
 
     public boolean getCarHasMoved() {
-        return carHasMoved;
+        return this.carStates.getCarHasMoved(this.index);
     }
 
     /**
@@ -181,6 +152,6 @@ public boolean getCarHasMoved() {
      */
 
     public void setCarHasMoved(boolean carHasMoved) {
-        this.carHasMoved = carHasMoved;
+        this.carStates.setCarHasMoved(this.index, carHasMoved);
     }
 }
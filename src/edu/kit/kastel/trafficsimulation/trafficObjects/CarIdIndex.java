@@ -0,0 +1,87 @@
+package src.edu.kit.kastel.trafficsimulation.trafficObjects;
+
+import java.util.Arrays;
+
+/**
+ * This class maps the id of a car to its index in the car arrays. If the ids are compact, a direct lookup table is
+ * used, otherwise the index is found by a binary search over the sorted ids.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class CarIdIndex {
+    /**
+     * Integer representing a car which doesn't exist
+     */
+    public static final int NONE = -1;
+    /**
+     * Maximal number of lookup table entries per car for which the ids count as compact
+     */
+    private static final int MAX_ENTRIES_PER_CAR = 4;
+    /**
+     * Store containing the ids of all cars sorted ascending
+     */
+    private final CarStateStore carStates;
+    /**
+     * Integer representing the smallest id of all cars
+     */
+    private final int smallestId;
+    /**
+     * Lookup table containing the index of the car with the id (smallest id + table index), null if the ids are sparse
+     */
+    private final int[] carIndices;
+
+    /**
+     * Constructor of the car id index
+     *
+     * @param carStates store containing the cars sorted by id
+     */
+    public CarIdIndex(CarStateStore carStates) {
+        this.carStates = carStates;
+        if (carStates.size() == 0) {
+            this.smallestId = 0;
+            this.carIndices = new int[0];
+            return;
+        }
+        this.smallestId = carStates.getId(0);
+        long idRange = (long) carStates.getId(carStates.size() - 1) - smallestId + 1;
+        if (idRange <= (long) carStates.size() * MAX_ENTRIES_PER_CAR) {
+            this.carIndices = new int[(int) idRange];
+            Arrays.fill(this.carIndices, NONE);
+            for (int i = 0; i < carStates.size(); i++) {
+                this.carIndices[carStates.getId(i) - smallestId] = i;
+            }
+        } else {
+            this.carIndices = null;
+        }
+    }
+
+    /**
+     * Finds the index of the car with the specified id
+     *
+     * @param carId the id of the car
+     * @return the index of the car or {@value NONE} if there is no car with the id
+     */
+    public int findCarIndex(int carId) {
+        if (carIndices != null) {
+            long tableIndex = (long) carId - smallestId;
+            if (tableIndex < 0 || tableIndex >= carIndices.length) {
+                return NONE;
+            }
+            return carIndices[(int) tableIndex];
+        }
+        int low = 0;
+        int high = carStates.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (carStates.getId(middle) < carId) {
+                low = middle + 1;
+            } else if (carStates.getId(middle) > carId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return NONE;
+    }
+}
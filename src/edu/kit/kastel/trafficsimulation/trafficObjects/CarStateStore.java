@@ -0,0 +1,293 @@
+package src.edu.kit.kastel.trafficsimulation.trafficObjects;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class stores the state of all cars in the network in parallel arrays indexed by the car's index
+ * (the cars are sorted by id)
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class CarStateStore {
+    /**
+     * Array containing the id of every car
+     */
+    private final int[] ids;
+    /**
+     * Array containing the maximal speed of every car
+     */
+    private final int[] maxSpeeds;
+    /**
+     * Array containing the acceleration of every car
+     */
+    private final int[] accelerations;
+    /**
+     * Array containing the street on which every car is currently on
+     */
+    private final int[] currentStreets;
+    /**
+     * Array containing the current position of every car on its street
+     */
+    private final int[] currentPositions;
+    /**
+     * Array containing the current speed of every car
+     */
+    private final int[] currentSpeeds;
+    /**
+     * Array containing the current direction of every car
+     */
+    private final int[] currentDirections;
+    /**
+     * Set of the indices of the cars that have turned onto a new street during the current tick
+     */
+    private final BitSet carsHaveMoved;
+
+    /**
+     * Constructor of the car state store, all cars start with speed 0, position 0 and direction 0
+     *
+     * @param ids           ids of the cars sorted ascending
+     * @param startStreets  starting streets of the cars
+     * @param maxSpeeds     maximal speeds of the cars
+     * @param accelerations accelerations of the cars
+     */
+    public CarStateStore(int[] ids, int[] startStreets, int[] maxSpeeds, int[] accelerations) {
+        this.ids = ids;
+        this.maxSpeeds = maxSpeeds;
+        this.accelerations = accelerations;
+        this.currentStreets = startStreets;
+        this.currentPositions = new int[ids.length];
+        this.currentSpeeds = new int[ids.length];
+        this.currentDirections = new int[ids.length];
+        this.carsHaveMoved = new BitSet(ids.length);
+    }
+
+    /**
+     * Constructor of a copy of a car state store, the properties of the cars are shared
+     *
+     * @param carStates the store to be copied
+     */
+    private CarStateStore(CarStateStore carStates) {
+        this.ids = carStates.ids;
+        this.maxSpeeds = carStates.maxSpeeds;
+        this.accelerations = carStates.accelerations;
+        this.currentStreets = carStates.currentStreets.clone();
+        this.currentPositions = carStates.currentPositions.clone();
+        this.currentSpeeds = carStates.currentSpeeds.clone();
+        this.currentDirections = carStates.currentDirections.clone();
+        this.carsHaveMoved = (BitSet) carStates.carsHaveMoved.clone();
+    }
+
+    /**
+     * Creates a copy of the store whose state can be changed independently
+     *
+     * @return the copy of the store
+     */
+    public CarStateStore copy() {
+        return new CarStateStore(this);
+    }
+
+    /**
+     * Overwrites the state of every car with the state of the same car in another store
+     *
+     * @param carStates the store whose state is copied
+     */
+    public void copyStateFrom(CarStateStore carStates) {
+        System.arraycopy(carStates.currentStreets, 0, this.currentStreets, 0, this.currentStreets.length);
+        System.arraycopy(carStates.currentPositions, 0, this.currentPositions, 0, this.currentPositions.length);
+        System.arraycopy(carStates.currentSpeeds, 0, this.currentSpeeds, 0, this.currentSpeeds.length);
+        System.arraycopy(carStates.currentDirections, 0, this.currentDirections, 0, this.currentDirections.length);
+        this.carsHaveMoved.clear();
+        this.carsHaveMoved.or(carStates.carsHaveMoved);
+    }
+
+    /**
+     * Checks if every car has the same street, position, speed and direction as the same car in another store
+     *
+     * @param carStates the store to be compared with
+     * @return true if the states of all cars are equal
+     */
+    public boolean stateEquals(CarStateStore carStates) {
+        return Arrays.equals(this.currentStreets, carStates.currentStreets)
+                && Arrays.equals(this.currentPositions, carStates.currentPositions)
+                && Arrays.equals(this.currentSpeeds, carStates.currentSpeeds)
+                && Arrays.equals(this.currentDirections, carStates.currentDirections);
+    }
+
+    /**
+     * Computes a hash of the street, position, speed and direction of every car
+     *
+     * @return the hash of the cars' state
+     */
+    public long stateHash() {
+        long hash = 0;
+        for (int i = 0; i < ids.length; i++) {
+            // Position and speed fit into 16 bits, direction into 2 bits
+            long carState = ((long) currentStreets[i] << 34) ^ ((long) currentPositions[i] << 18)
+                    ^ ((long) currentSpeeds[i] << 2) ^ currentDirections[i];
+            hash = (hash ^ carState) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 29;
+        }
+        return hash;
+    }
+
+    /**
+     * Getter for the number of cars in the store
+     *
+     * @return number of cars in the store
+     */
+    public int size() {
+        return this.ids.length;
+    }
+
+    /**
+     * Creates a view object for every car in the store
+     *
+     * @return array of cars sorted by id
+     */
+    public Car[] createCarViews() {
+        Car[] carsArray = new Car[this.ids.length];
+        for (int i = 0; i < carsArray.length; i++) {
+            carsArray[i] = new Car(this, i);
+        }
+        return carsArray;
+    }
+
+    /**
+     * Getter for a car's id
+     *
+     * @param carIndex index of the car
+     * @return car's id
+     */
+    public int getId(int carIndex) {
+        return this.ids[carIndex];
+    }
+
+    /**
+     * Getter for a car's maximal speed
+     *
+     * @param carIndex index of the car
+     * @return car's maximal speed
+     */
+    public int getMaxSpeed(int carIndex) {
+        return this.maxSpeeds[carIndex];
+    }
+
+    /**
+     * Getter for a car's acceleration
+     *
+     * @param carIndex index of the car
+     * @return car's acceleration
+     */
+    public int getAcceleration(int carIndex) {
+        return this.accelerations[carIndex];
+    }
+
+    /**
+     * Getter for a car's current street
+     *
+     * @param carIndex index of the car
+     * @return car's current street
+     */
+    public int getCurrentStreet(int carIndex) {
+        return this.currentStreets[carIndex];
+    }
+
+    /**
+     * Setter for a car's current street
+     *
+     * @param carIndex      index of the car
+     * @param currentStreet new current street of the car
+     */
+    public void setCurrentStreet(int carIndex, int currentStreet) {
+        this.currentStreets[carIndex] = currentStreet;
+    }
+
+    /**
+     * Getter for a car's current position
+     *
+     * @param carIndex index of the car
+     * @return car's current position
+     */
+    public int getCurrentPosition(int carIndex) {
+        return this.currentPositions[carIndex];
+    }
+
+    /**
+     * Setter for a car's current position
+     *
+     * @param carIndex        index of the car
+     * @param currentPosition new current position of the car
+     */
+    public void setCurrentPosition(int carIndex, int currentPosition) {
+        this.currentPositions[carIndex] = currentPosition;
+    }
+
+    /**
+     * Getter for a car's current speed
+     *
+     * @param carIndex index of the car
+     * @return car's current speed
+     */
+    public int getCurrentSpeed(int carIndex) {
+        return this.currentSpeeds[carIndex];
+    }
+
+    /**
+     * Setter for a car's current speed
+     *
+     * @param carIndex     index of the car
+     * @param currentSpeed new current speed of the car
+     */
+    public void setCurrentSpeed(int carIndex, int currentSpeed) {
+        this.currentSpeeds[carIndex] = currentSpeed;
+    }
+
+    /**
+     * Getter for a car's current direction
+     *
+     * @param carIndex index of the car
+     * @return car's current direction
+     */
+    public int getCurrentDirection(int carIndex) {
+        return this.currentDirections[carIndex];
+    }
+
+    /**
+     * Setter for a car's current direction
+     *
+     * @param carIndex         index of the car
+     * @param currentDirection new current direction of the car
+     */
+    public void setCurrentDirection(int carIndex, int currentDirection) {
+        this.currentDirections[carIndex] = currentDirection;
+    }
+
+    /**
+     * Getter for the state of a car's movement
+     *
+     * @param carIndex index of the car
+     * @return the state of the car's movement
+     */
+    public boolean getCarHasMoved(int carIndex) {
+        return this.carsHaveMoved.get(carIndex);
+    }
+
+    /**
+     * Setter for the state of a car's movement
+     *
+     * @param carIndex    index of the car
+     * @param carHasMoved new state of the car's movement
+     */
+    public void setCarHasMoved(int carIndex, boolean carHasMoved) {
+        this.carsHaveMoved.set(carIndex, carHasMoved);
+    }
+
+    /**
+     * Resets the state of every car's movement at the end of a tick
+     */
+    public void resetCarsHaveMoved() {
+        this.carsHaveMoved.clear();
+    }
+}
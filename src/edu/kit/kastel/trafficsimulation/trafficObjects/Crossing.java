@@ -1,9 +1,7 @@
 package src.edu.kit.kastel.trafficsimulation.trafficObjects;
 
-import java.util.ArrayList;
-
 /**
- * This object represents a crossing in the network
+ * This object represents a crossing in the network (its green phase is computed from the simulation's tick)
  *
  * @author unkno
  * @version 1.0
@@ -17,23 +15,6 @@ public class Crossing extends TrafficObject {
      * Integer representing the ticks count of the crossing
      */
     private final int ticksCount;
-    /**
-     * List of integers representing the ids of the incoming streets to the crossing
-     */
-    private final ArrayList<Integer> incomingStreetsIDs = new ArrayList<>();
-    /**
-     * List of integers representing the ids of the outgoing streets from the crossing
-     */
-    private final ArrayList<Integer> outgoingStreetsIDs = new ArrayList<>();
-    /**
-     * Integer representing the remaining duration of the current green phase of the crossing
-     */
-    private int greenPhaseDuration;
-    /**
-     * Integer representing the current green phase of the crossing
-     */
-    private int currentGreenPhase = 0;
-
     /**
      * Constructor of the crossing object
      *
@@ -44,11 +25,6 @@ public class Crossing extends TrafficObject {
     public Crossing(int id, int ticksCount) {
         this.id = id;
         this.ticksCount = ticksCount;
-        if (ticksCount == 0) {
-            this.greenPhaseDuration = 0;
-        } else if (ticksCount > 0) {
-            this.greenPhaseDuration = ticksCount - 1;
-        }
     }
 
     /**
@@ -68,78 +44,4 @@ public int getId() {
     public int getTicksCount() {
         return this.ticksCount;
     }
-
-    /**
-     * Getter for the crossing's green phase duration
-     *
-     * @return crossing's green phase duration
-     */
-    public int getGreenPhaseDuration() {
-        return this.greenPhaseDuration;
-    }
-
-    /**
-     * Setter for the crossing's green phase duration
-     *
-     * @param greenPhaseDuration new green phase duration of the crossing
-     */
-    public void setGreenPhaseDuration(int greenPhaseDuration) {
-        this.greenPhaseDuration = greenPhaseDuration;
-    }
-
-    /**
-     * Getter for the crossing's current green phase
-     *
-     * @return crossing's current green phase
-     */
-    public int getCurrentGreenPhase() {
-        return this.currentGreenPhase;
-    }
-
-    /**
-     * Setter for the crossing's current green phase
-     *
-     * @param currentGreenPhase new current green phase of the crossing
-     */
-    public void setCurrentGreenPhase(int currentGreenPhase) {
-        this.currentGreenPhase = currentGreenPhase;
-    }
-
-    /**
-     * Getter for the crossing's list of incoming streets' ids
-     *
-     * @return crossing's list of incoming streets' ids
-     */
-
-    public ArrayList<Integer> getIncomingStreetsIDs() {
-        return this.incomingStreetsIDs;
-    }
-
-    /**
-     * Adds the id of a street to the incoming streets' ids
-     *
-     * @param streetID id of the street to be added
-     */
-    public void addIncomingStreetId(int streetID) {
-        incomingStreetsIDs.add(streetID);
-    }
-
-    /**
-     * Getter for the crossing's list of outgoing streets' ids
-     *
-     * @return crossing's list of outgoing streets' ids
-     */
-    public ArrayList<Integer> getOutgoingStreetsIDs() {
-        return this.outgoingStreetsIDs;
-    }
-
-    /**
-     * Adds the id of a street to the outgoing street's ids
-     *
-     * @param streetID id of the street to be added
-     */
-
-    public void addOutgoingStreetId(int streetID) {
-        outgoingStreetsIDs.add(streetID);
-    }
 }
@@ -0,0 +1,136 @@
+package src.edu.kit.kastel.trafficsimulation.trafficObjects;
+
+/**
+ * This class represents the lane of a street: the indices of the cars on the street sorted by position
+ * (the car closest to the street's end first)
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class Lane {
+    /**
+     * Ring buffer containing the indices of the cars in the cars array (its length is a power of two, so an index
+     * wraps around by masking instead of a division)
+     */
+    private int[] carIndices;
+    /**
+     * Integer representing the index of the front car in the ring buffer
+     */
+    private int head = 0;
+    /**
+     * Integer representing the number of cars on the lane
+     */
+    private int size = 0;
+
+    /**
+     * Constructor of the lane object
+     *
+     * @param capacity the maximal number of cars expected on the lane
+     */
+    public Lane(int capacity) {
+        this.carIndices = new int[Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1)];
+    }
+
+    /**
+     * Constructor of a copy of a lane
+     *
+     * @param lane the lane to be copied
+     */
+    private Lane(Lane lane) {
+        this.carIndices = lane.carIndices.clone();
+        this.head = lane.head;
+        this.size = lane.size;
+    }
+
+    /**
+     * Creates a copy of the lane which can be changed independently
+     *
+     * @return the copy of the lane
+     */
+    public Lane copy() {
+        return new Lane(this);
+    }
+
+    /**
+     * Getter for the number of cars on the lane
+     *
+     * @return number of cars on the lane
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Getter for the index of a car in the cars array
+     *
+     * @param laneIndex the index of the car on the lane (0 for the front car)
+     * @return the index of the car in the cars array
+     */
+    public int get(int laneIndex) {
+        return this.carIndices[wrap(this.head + laneIndex)];
+    }
+
+    /**
+     * Getter for the index of the last car on the lane in the cars array
+     *
+     * @return the index of the last car in the cars array
+     */
+    public int getLast() {
+        return get(this.size - 1);
+    }
+
+    /**
+     * Adds a car behind the last car on the lane
+     *
+     * @param carIndex the index of the car in the cars array
+     */
+    public void addLast(int carIndex) {
+        if (this.size == this.carIndices.length) {
+            int[] grownCarIndices = new int[this.carIndices.length * 2];
+            for (int i = 0; i < this.size; i++) {
+                grownCarIndices[i] = get(i);
+            }
+            this.carIndices = grownCarIndices;
+            this.head = 0;
+        }
+        this.carIndices[wrap(this.head + this.size)] = carIndex;
+        this.size++;
+    }
+
+    /**
+     * Removes a car from the lane, the cars behind it move up one index
+     *
+     * @param laneIndex the index of the car on the lane
+     */
+    public void remove(int laneIndex) {
+        if (laneIndex == 0) {
+            this.head = wrap(this.head + 1);
+        } else {
+            for (int i = laneIndex; i < this.size - 1; i++) {
+                this.carIndices[wrap(this.head + i)] = get(i + 1);
+            }
+        }
+        this.size--;
+    }
+
+    /**
+     * Swaps a car with the car directly in front of it (after an overtaking)
+     *
+     * @param laneIndex the index of the overtaking car on the lane
+     */
+    public void swapWithCarInFront(int laneIndex) {
+        int overtakingCar = get(laneIndex);
+        this.carIndices[wrap(this.head + laneIndex)] = get(laneIndex - 1);
+        this.carIndices[wrap(this.head + laneIndex - 1)] = overtakingCar;
+    }
+
+    /**
+     * Wraps an index around the end of the ring buffer
+     *
+     * @param bufferIndex the index which may exceed the ring buffer
+     * @return the index within the ring buffer
+     */
+    private int wrap(int bufferIndex) {
+        return bufferIndex & (this.carIndices.length - 1);
+    }
+}
@@ -0,0 +1,264 @@
+package src.edu.kit.kastel.trafficsimulation.trafficObjects;
+
+/**
+ * This class represents the compiled topology of the network: the crossing at the end of every street, the incoming
+ * and outgoing streets of every crossing (compressed into two arrays each) and the next street for every street and
+ * direction of a car
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class NetworkTopology {
+    /**
+     * Number of directions a car can have
+     */
+    public static final int DIRECTIONS_COUNT = 4;
+    /**
+     * Integer representing a missing crossing or street
+     */
+    public static final int NONE = -1;
+    /**
+     * Array containing the index of the crossing at the end of every street
+     */
+    private final int[] endCrossingIndices;
+    /**
+     * Array containing the index of every street in the incoming streets of the crossing at its end
+     */
+    private final int[] greenPhaseIndices;
+    /**
+     * Array containing the beginning of every crossing's incoming streets in the incoming streets array
+     */
+    private final int[] incomingStreetsOffsets;
+    /**
+     * Array containing the ids of the incoming streets of all crossings
+     */
+    private final int[] incomingStreetsIDs;
+    /**
+     * Array containing the beginning of every crossing's outgoing streets in the outgoing streets array
+     */
+    private final int[] outgoingStreetsOffsets;
+    /**
+     * Array containing the ids of the outgoing streets of all crossings
+     */
+    private final int[] outgoingStreetsIDs;
+    /**
+     * Array containing the next street of every street for every direction
+     */
+    private final int[] nextStreetIDs;
+
+    /**
+     * Constructor of the topology, links the streets and crossings of the network
+     *
+     * @param streetsArray   array of streets sorted by id
+     * @param crossingsArray array of crossings sorted by id
+     */
+    public NetworkTopology(Street[] streetsArray, Crossing[] crossingsArray) {
+        this.endCrossingIndices = new int[streetsArray.length];
+        this.greenPhaseIndices = new int[streetsArray.length];
+        this.incomingStreetsOffsets = new int[crossingsArray.length + 1];
+        this.outgoingStreetsOffsets = new int[crossingsArray.length + 1];
+        int[] startCrossingIndices = new int[streetsArray.length];
+        for (Street street : streetsArray) {
+            startCrossingIndices[street.getId()] = findCrossingIndex(crossingsArray, street.getStart());
+            endCrossingIndices[street.getId()] = findCrossingIndex(crossingsArray, street.getEnd());
+            countStreet(crossingsArray, startCrossingIndices[street.getId()], outgoingStreetsOffsets);
+            countStreet(crossingsArray, endCrossingIndices[street.getId()], incomingStreetsOffsets);
+        }
+        for (int i = 0; i < crossingsArray.length; i++) {
+            incomingStreetsOffsets[i + 1] += incomingStreetsOffsets[i];
+            outgoingStreetsOffsets[i + 1] += outgoingStreetsOffsets[i];
+        }
+        this.incomingStreetsIDs = new int[incomingStreetsOffsets[crossingsArray.length]];
+        this.outgoingStreetsIDs = new int[outgoingStreetsOffsets[crossingsArray.length]];
+        int[] incomingStreetsCounts = new int[crossingsArray.length];
+        int[] outgoingStreetsCounts = new int[crossingsArray.length];
+        for (Street street : streetsArray) {
+            addStreet(crossingsArray, startCrossingIndices[street.getId()], street.getId(),
+                    outgoingStreetsOffsets, outgoingStreetsIDs, outgoingStreetsCounts);
+            greenPhaseIndices[street.getId()] = addStreet(crossingsArray, endCrossingIndices[street.getId()],
+                    street.getId(), incomingStreetsOffsets, incomingStreetsIDs, incomingStreetsCounts);
+        }
+        this.nextStreetIDs = new int[streetsArray.length * DIRECTIONS_COUNT];
+        for (Street street : streetsArray) {
+            for (int direction = 0; direction < DIRECTIONS_COUNT; direction++) {
+                nextStreetIDs[street.getId() * DIRECTIONS_COUNT + direction]
+                        = findNextStreet(endCrossingIndices[street.getId()], direction);
+            }
+        }
+    }
+
+    /**
+     * Constructor of a topology which was compiled before
+     *
+     * @param topologyArrays the arrays of the topology in the order of {@link #getTopologyArrays()}
+     */
+    public NetworkTopology(int[][] topologyArrays) {
+        this.endCrossingIndices = topologyArrays[0];
+        this.greenPhaseIndices = topologyArrays[1];
+        this.incomingStreetsOffsets = topologyArrays[2];
+        this.incomingStreetsIDs = topologyArrays[3];
+        this.outgoingStreetsOffsets = topologyArrays[4];
+        this.outgoingStreetsIDs = topologyArrays[5];
+        this.nextStreetIDs = topologyArrays[6];
+    }
+
+    /**
+     * Getter for all arrays of the topology, from which it can be constructed again
+     *
+     * @return the end crossings, green phases, incoming streets (offsets and ids), outgoing streets (offsets and ids)
+     * and next streets
+     */
+    public int[][] getTopologyArrays() {
+        return new int[][] {endCrossingIndices, greenPhaseIndices, incomingStreetsOffsets, incomingStreetsIDs,
+            outgoingStreetsOffsets, outgoingStreetsIDs, nextStreetIDs};
+    }
+
+    /**
+     * Finds the index of the crossing with the specified id (the last one if multiple crossings have the same id)
+     *
+     * @param crossingsArray array of crossings sorted by id
+     * @param crossingID     the id of the crossing
+     * @return the index of the crossing or {@value NONE} if it doesn't exist
+     */
+    public static int findCrossingIndex(Crossing[] crossingsArray, int crossingID) {
+        int low = 0;
+        int high = crossingsArray.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (crossingsArray[middle].getId() <= crossingID) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low > 0 && crossingsArray[low - 1].getId() == crossingID) {
+            return low - 1;
+        }
+        return NONE;
+    }
+
+    /**
+     * Counts a street for the crossing at the specified index and all crossings with the same id
+     *
+     * @param crossingsArray array of crossings sorted by id
+     * @param crossingIndex  the index of the last crossing with the id
+     * @param offsets        the offsets array in which the street is counted (shifted by one index)
+     */
+    private static void countStreet(Crossing[] crossingsArray, int crossingIndex, int[] offsets) {
+        for (int i = crossingIndex; i >= 0 && crossingsArray[i].getId() == crossingsArray[crossingIndex].getId(); i--) {
+            offsets[i + 1]++;
+        }
+    }
+
+    /**
+     * Adds a street to the crossing at the specified index and all crossings with the same id
+     *
+     * @param crossingsArray array of crossings sorted by id
+     * @param crossingIndex  the index of the last crossing with the id
+     * @param streetID       the id of the street to be added
+     * @param offsets        the offsets of the crossings' streets
+     * @param streetIDs      the array of the crossings' streets
+     * @param counts         the number of streets already added to every crossing
+     * @return the index of the street among the streets of the crossing
+     */
+    private static int addStreet(Crossing[] crossingsArray, int crossingIndex, int streetID,
+                                 int[] offsets, int[] streetIDs, int[] counts) {
+        int streetIndex = NONE;
+        for (int i = crossingIndex; i >= 0 && crossingsArray[i].getId() == crossingsArray[crossingIndex].getId(); i--) {
+            streetIndex = counts[i];
+            streetIDs[offsets[i] + counts[i]] = streetID;
+            counts[i]++;
+        }
+        return streetIndex;
+    }
+
+    /**
+     * Finds the next street of a car at a crossing according to its direction
+     *
+     * @param crossingIndex the index of the crossing
+     * @param direction     the direction of the car
+     * @return the id of the next street or {@value NONE} if there is none
+     */
+    private int findNextStreet(int crossingIndex, int direction) {
+        if (crossingIndex == NONE || getOutgoingStreetsCount(crossingIndex) == 0) {
+            return NONE;
+        }
+        if (direction > getOutgoingStreetsCount(crossingIndex) - 1) {
+            return outgoingStreetsIDs[outgoingStreetsOffsets[crossingIndex]];
+        }
+        return outgoingStreetsIDs[outgoingStreetsOffsets[crossingIndex] + direction];
+    }
+
+    /**
+     * Getter for the index of the crossing at the end of a street
+     *
+     * @param streetID the id of the street
+     * @return the index of the crossing at the street's end
+     */
+    public int getEndCrossingIndex(int streetID) {
+        return endCrossingIndices[streetID];
+    }
+
+    /**
+     * Getter for the green phase of the crossing at a street's end during which the street's cars may pass
+     *
+     * @param streetID the id of the street
+     * @return the index of the street among the incoming streets of the crossing
+     */
+    public int getGreenPhaseIndex(int streetID) {
+        return greenPhaseIndices[streetID];
+    }
+
+    /**
+     * Getter for the next street of a car according to its direction
+     *
+     * @param streetID  the id of the street at whose end the car is
+     * @param direction the direction of the car
+     * @return the id of the next street
+     */
+    public int getNextStreetID(int streetID, int direction) {
+        return nextStreetIDs[streetID * DIRECTIONS_COUNT + direction];
+    }
+
+    /**
+     * Getter for the number of incoming streets of a crossing
+     *
+     * @param crossingIndex the index of the crossing
+     * @return number of incoming streets of the crossing
+     */
+    public int getIncomingStreetsCount(int crossingIndex) {
+        return incomingStreetsOffsets[crossingIndex + 1] - incomingStreetsOffsets[crossingIndex];
+    }
+
+    /**
+     * Getter for an incoming street of a crossing
+     *
+     * @param crossingIndex the index of the crossing
+     * @param streetIndex   the index of the street among the incoming streets of the crossing
+     * @return the id of the incoming street
+     */
+    public int getIncomingStreetID(int crossingIndex, int streetIndex) {
+        return incomingStreetsIDs[incomingStreetsOffsets[crossingIndex] + streetIndex];
+    }
+
+    /**
+     * Getter for the number of outgoing streets of a crossing
+     *
+     * @param crossingIndex the index of the crossing
+     * @return number of outgoing streets of the crossing
+     */
+    public int getOutgoingStreetsCount(int crossingIndex) {
+        return outgoingStreetsOffsets[crossingIndex + 1] - outgoingStreetsOffsets[crossingIndex];
+    }
+
+    /**
+     * Getter for an outgoing street of a crossing
+     *
+     * @param crossingIndex the index of the crossing
+     * @param streetIndex   the index of the street among the outgoing streets of the crossing
+     * @return the id of the outgoing street
+     */
+    public int getOutgoingStreetID(int crossingIndex, int streetIndex) {
+        return outgoingStreetsIDs[outgoingStreetsOffsets[crossingIndex] + streetIndex];
+    }
+}
@@ -2,9 +2,11 @@
 
 
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.NetworkTopology;
 
 /**
- * This class represents a crossing updater (actualises the properties of every crossing in the network)
+ * This class represents a crossing updater (keeps the global tick of the simulation from which the green phase of
+ * every crossing in the network is computed)
  *
  * @author unkno
  * @version 1.0
@@ -14,34 +16,145 @@ public class CrossingUpdater {
      * Local instance of the array of crossings sorted by id
      */
     Crossing[] crossingsArray;
+    /**
+     * Local instance of the network's topology
+     */
+    private NetworkTopology topology;
+    /**
+     * Long representing the number of ticks simulated since the network was loaded
+     */
+    private long currentTick = 0;
 
     /**
-     * Iterates through all crossings and calls the green phase updater function
+     * Advances the global tick, the green phases of all crossings follow from it
      */
     public void updateCrossings() {
-        for (int i = 0; i < crossingsArray.length; i++) {
-            updateGreenPhase(i);
+        currentTick++;
+    }
+
+    /**
+     * Computes the green phase of a crossing at the current tick
+     *
+     * @param crossingIndex the index of the crossing in the crossings array
+     * @return the index of the incoming street which has green
+     */
+    public int getCurrentGreenPhase(int crossingIndex) {
+        return getGreenPhase(crossingIndex, currentTick);
+    }
+
+    /**
+     * Computes the green phase of a crossing at the specified tick: every incoming street has green for ticks count
+     * ticks, beginning with the first one
+     *
+     * @param crossingIndex the index of the crossing in the crossings array
+     * @param tick          the tick
+     * @return the index of the incoming street which has green
+     */
+    public int getGreenPhase(int crossingIndex, long tick) {
+        int ticksCount = crossingsArray[crossingIndex].getTicksCount();
+        if (ticksCount == 0) {
+            return 0;
         }
+        return (int) ((tick / ticksCount) % topology.getIncomingStreetsCount(crossingIndex));
     }
 
     /**
-     * Updates the green phase of a crossing
+     * Computes the remaining duration of a crossing's green phase at the specified tick
      *
      * @param crossingIndex the index of the crossing in the crossings array
+     * @param tick          the tick
+     * @return the remaining duration of the green phase
      */
-    private void updateGreenPhase(int crossingIndex) {
-        Crossing currentCrossing = crossingsArray[crossingIndex];
-        if (currentCrossing.getGreenPhaseDuration() > 0) {
-            currentCrossing.setGreenPhaseDuration(currentCrossing.getGreenPhaseDuration() - 1);
-        } else if (currentCrossing.getTicksCount() != 0) {
-            currentCrossing.setGreenPhaseDuration(currentCrossing.getTicksCount() - 1);
-            if (currentCrossing.getCurrentGreenPhase() < currentCrossing.getIncomingStreetsIDs().size() - 1) {
-                currentCrossing.setCurrentGreenPhase(currentCrossing.getCurrentGreenPhase() + 1);
-            } else {
-                currentCrossing.setCurrentGreenPhase(0);
+    public int getGreenPhaseDuration(int crossingIndex, long tick) {
+        int ticksCount = crossingsArray[crossingIndex].getTicksCount();
+        if (ticksCount == 0) {
+            return 0;
+        }
+        return ticksCount - 1 - (int) (tick % ticksCount);
+    }
+
+    /**
+     * Checks if the crossing at a street's end lets cars from the street pass at the current tick (green phase for
+     * the street or no traffic lights)
+     *
+     * @param streetID the id of the street
+     * @return true if cars from the street may pass the crossing
+     */
+    public boolean crossingLetsStreetPass(int streetID) {
+        int crossingIndex = topology.getEndCrossingIndex(streetID);
+        return crossingsArray[crossingIndex].getTicksCount() == 0
+                || getCurrentGreenPhase(crossingIndex) == topology.getGreenPhaseIndex(streetID);
+    }
+
+    /**
+     * Finds the first tick (not before the specified one) at which the crossing at a street's end has a green phase
+     * for the street
+     *
+     * @param streetID the id of the street
+     * @param fromTick the first tick to be considered
+     * @return the first tick at which cars from the street may pass the crossing
+     */
+    public long findNextPassableTick(int streetID, long fromTick) {
+        int crossingIndex = topology.getEndCrossingIndex(streetID);
+        int ticksCount = crossingsArray[crossingIndex].getTicksCount();
+        if (ticksCount == 0) {
+            return fromTick;
+        }
+        int incomingStreetsCount = topology.getIncomingStreetsCount(crossingIndex);
+        long phaseNumber = fromTick / ticksCount;
+        int phasesToWait = (topology.getGreenPhaseIndex(streetID) - (int) (phaseNumber % incomingStreetsCount)
+                + incomingStreetsCount) % incomingStreetsCount;
+        if (phasesToWait == 0) {
+            return fromTick;
+        }
+        return (phaseNumber + phasesToWait) * ticksCount;
+    }
+
+    /**
+     * Computes the period after which the green phases of all crossings repeat (the least common multiple of the
+     * cycle lengths of all crossings with traffic lights)
+     *
+     * @param maxPeriod the maximal period of interest
+     * @return the period of the green phases or 0 if it is greater than the maximal period
+     */
+    public long findGreenPhasesPeriod(long maxPeriod) {
+        long period = 1;
+        for (int i = 0; i < crossingsArray.length; i++) {
+            long cycleLength = (long) crossingsArray[i].getTicksCount() * topology.getIncomingStreetsCount(i);
+            if (cycleLength == 0) {
+                continue;
+            }
+            long greatestCommonDivisor = period;
+            long remainder = cycleLength;
+            while (remainder != 0) {
+                long nextRemainder = greatestCommonDivisor % remainder;
+                greatestCommonDivisor = remainder;
+                remainder = nextRemainder;
+            }
+            period = period / greatestCommonDivisor * cycleLength;
+            if (period > maxPeriod) {
+                return 0;
             }
         }
-        crossingsArray[crossingIndex] = currentCrossing;
+        return period;
+    }
+
+    /**
+     * Getter for the global tick
+     *
+     * @return number of ticks simulated since the network was loaded
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Setter for the global tick
+     *
+     * @param currentTick new number of ticks simulated since the network was loaded
+     */
+    public void setCurrentTick(long currentTick) {
+        this.currentTick = currentTick;
     }
 
     /**
@@ -61,4 +174,13 @@ public Crossing[] getCrossingsArray() {
     public void setCrossingsArray(Crossing[] crossingsArray) {
         this.crossingsArray = crossingsArray;
     }
+
+    /**
+     * Setter for the network's topology
+     *
+     * @param topology current topology of the network
+     */
+    public void setTopology(NetworkTopology topology) {
+        this.topology = topology;
+    }
 }
@@ -0,0 +1,88 @@
+package src.edu.kit.kastel.trafficsimulation.trafficUpdaters;
+
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
+
+/**
+ * This class detects cycles in the state of the network. The state of the cars is observed at every tick which is a
+ * multiple of the period of the green phases, so two equal observations mean that the whole network repeats. The
+ * observations are compared with a saved snapshot which is replaced after 1, 2, 4, 8, ... observations (Brent's
+ * algorithm), equal hashes are verified by comparing the full state.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class CycleDetector {
+    /**
+     * Maximal period of the green phases for which cycles are detected
+     */
+    private static final long MAX_GREEN_PHASES_PERIOD = 1 << 20;
+    /**
+     * Store of the observed car states
+     */
+    private final CarStateStore carStates;
+    /**
+     * Period of the green phases of all crossings, 0 if cycles aren't detected
+     */
+    private final long greenPhasesPeriod;
+    /**
+     * Snapshot of the car states at the saved tick
+     */
+    private CarStateStore savedCarStates;
+    /**
+     * Hash of the car states at the saved tick
+     */
+    private long savedStateHash;
+    /**
+     * Long representing the tick at which the snapshot was saved
+     */
+    private long savedTick;
+    /**
+     * Number of observations after which the snapshot is replaced
+     */
+    private long observationsUntilSave = 1;
+    /**
+     * Number of observations since the snapshot was saved
+     */
+    private long observationsSinceSave = 0;
+
+    /**
+     * Constructor of the cycle detector
+     *
+     * @param carStates       store of the car states to be observed
+     * @param crossingUpdater crossing updater computing the green phases of the crossings
+     */
+    public CycleDetector(CarStateStore carStates, CrossingUpdater crossingUpdater) {
+        this.carStates = carStates;
+        this.greenPhasesPeriod = crossingUpdater.findGreenPhasesPeriod(MAX_GREEN_PHASES_PERIOD);
+    }
+
+    /**
+     * Observes the state of the network after a tick
+     *
+     * @param currentTick the number of ticks simulated since the network was loaded
+     * @return the length of the detected cycle in ticks or 0 if no cycle was detected
+     */
+    public long observe(long currentTick) {
+        if (greenPhasesPeriod == 0 || currentTick % greenPhasesPeriod != 0) {
+            return 0;
+        }
+        long stateHash = carStates.stateHash();
+        if (savedCarStates != null && stateHash == savedStateHash && currentTick > savedTick
+                && carStates.stateEquals(savedCarStates)) {
+            return currentTick - savedTick;
+        }
+        observationsSinceSave++;
+        if (savedCarStates == null || observationsSinceSave >= observationsUntilSave) {
+            if (savedCarStates == null) {
+                this.savedCarStates = carStates.copy();
+            } else {
+                savedCarStates.copyStateFrom(carStates);
+            }
+            this.savedStateHash = stateHash;
+            this.savedTick = currentTick;
+            this.observationsUntilSave *= 2;
+            this.observationsSinceSave = 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,286 @@
+package src.edu.kit.kastel.trafficsimulation.trafficUpdaters;
+
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Lane;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.NetworkTopology;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class represents an event-driven street updater. A car standing at the end of a street which can't pass the
+ * crossing falls asleep together with the cars queued directly behind it. The sleeping cars are skipped until the
+ * green phase for their street begins (a timing wheel keyed by tick) or the last car of the street they would turn
+ * onto changes its position. Streets on which every car sleeps aren't visited at all, so the result of a tick is the
+ * same as the result of {@link StreetUpdater} while only the woken cars are updated.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class EventStreetUpdater extends StreetUpdater {
+    /**
+     * Number of slots of the timing wheel (the maximal number of ticks a street sleeps before it is woken)
+     */
+    private static final int WHEEL_SLOTS = 64;
+    /**
+     * Integer representing a street which isn't woken by a timer or another street
+     */
+    private static final int NONE = -1;
+    /**
+     * Array of lanes for which the sleeping cars were initialised
+     */
+    private Lane[] initializedLanesArray;
+    /**
+     * Set of the ids of the streets whose cars aren't all sleeping
+     */
+    private BitSet activeStreets = new BitSet();
+    /**
+     * Array containing the number of sleeping cars at the front of every street
+     */
+    private int[] sleepingCarsCounts = new int[0];
+    /**
+     * Array containing the tick at which every street is woken by the timing wheel ({@value NONE} for no timer)
+     */
+    private long[] wakeTicks = new long[0];
+    /**
+     * Array containing the id of the street whose last car wakes every street ({@value NONE} for no street)
+     */
+    private int[] awaitedStreetIDs = new int[0];
+    /**
+     * Array containing the ids of the streets waiting for the last car of every street
+     */
+    private int[][] waitingStreetIDs = new int[0][];
+    /**
+     * Array containing the number of streets waiting for the last car of every street
+     */
+    private int[] waitingStreetsCounts = new int[0];
+    /**
+     * Slots of the timing wheel containing the ids of the streets to be woken at a tick
+     */
+    private final int[][] timerSlots = new int[WHEEL_SLOTS][];
+    /**
+     * Array containing the number of streets in every slot of the timing wheel
+     */
+    private final int[] timerSlotsSizes = new int[WHEEL_SLOTS];
+    /**
+     * Long representing the last tick for which the timers were fired
+     */
+    private long lastTimersTick;
+
+    /**
+     * Updates the cars of every street which aren't sleeping
+     */
+    @Override
+    public void updateStreets() {
+        if (initializedLanesArray != getLanesArray()) {
+            initializeSleepingCars();
+        }
+        setAnyCarMoved(false);
+        fireTimers(getCrossingUpdater().getCurrentTick());
+        Street[] streetsArray = getStreetsArray();
+        // Streets woken during the loop are visited in the same tick if their id is higher
+        for (int i = activeStreets.nextSetBit(0); i >= 0; i = activeStreets.nextSetBit(i + 1)) {
+            updateActiveStreet(streetsArray[i]);
+        }
+        getCarStates().resetCarsHaveMoved();
+    }
+
+    /**
+     * Wakes every street and initialises the timing wheel for the current network
+     */
+    private void initializeSleepingCars() {
+        Lane[] lanesArray = getLanesArray();
+        this.initializedLanesArray = lanesArray;
+        this.activeStreets = new BitSet(lanesArray.length);
+        this.sleepingCarsCounts = new int[lanesArray.length];
+        this.wakeTicks = new long[lanesArray.length];
+        this.awaitedStreetIDs = new int[lanesArray.length];
+        this.waitingStreetIDs = new int[lanesArray.length][];
+        this.waitingStreetsCounts = new int[lanesArray.length];
+        Arrays.fill(wakeTicks, NONE);
+        Arrays.fill(awaitedStreetIDs, NONE);
+        Arrays.fill(timerSlotsSizes, 0);
+        for (int i = 0; i < lanesArray.length; i++) {
+            if (lanesArray[i].size() > 0) {
+                activeStreets.set(i);
+            }
+        }
+        this.lastTimersTick = getCrossingUpdater().getCurrentTick();
+    }
+
+    /**
+     * Updates the cars of a street behind its sleeping cars and lets the cars fall asleep which can't move during
+     * the next tick
+     *
+     * @param street the street to be updated
+     */
+    private void updateActiveStreet(Street street) {
+        int streetID = street.getId();
+        int positionOfLastCar = findPositionOfLastCarOnLane(streetID);
+        updateStreet(street, sleepingCarsCounts[streetID]);
+        if (findPositionOfLastCarOnLane(streetID) != positionOfLastCar) {
+            wakeWaitingStreets(streetID);
+        }
+        countSleepingCars(street);
+        if (sleepingCarsCounts[streetID] == getLanesArray()[streetID].size()) {
+            activeStreets.clear(streetID);
+        }
+    }
+
+    /**
+     * Counts the cars at the front of a street which won't move during the next tick: the first car standing at the
+     * street's end without being able to pass the crossing and every car standing directly behind a sleeping car
+     *
+     * @param street the street whose sleeping cars are counted
+     */
+    private void countSleepingCars(Street street) {
+        int streetID = street.getId();
+        Lane lane = getLanesArray()[streetID];
+        CarStateStore carStates = getCarStates();
+        if (sleepingCarsCounts[streetID] == 0) {
+            if (lane.size() == 0 || carStates.getCurrentPosition(lane.get(0)) != street.getLength()
+                    || carStates.getCurrentSpeed(lane.get(0)) != 0 || !fallAsleep(streetID, lane.get(0))) {
+                return;
+            }
+            sleepingCarsCounts[streetID] = 1;
+        }
+        int count = sleepingCarsCounts[streetID];
+        // A car with speed 0 accelerates by at most 10 and can't overtake the sleeping car in front of it
+        while (count < lane.size() && carStates.getCurrentSpeed(lane.get(count)) == 0
+                && carStates.getCurrentPosition(lane.get(count))
+                == carStates.getCurrentPosition(lane.get(count - 1)) - 10) {
+            count++;
+        }
+        sleepingCarsCounts[streetID] = count;
+    }
+
+    /**
+     * Lets the first car of a street fall asleep if it can't pass the crossing during the next tick, either because
+     * of a red light (woken by a timer) or because of the last car of the street it would turn onto (woken when that
+     * car changes its position)
+     *
+     * @param streetID the id of the street
+     * @param carIndex the index of the first car of the street
+     * @return true if the car has fallen asleep
+     */
+    private boolean fallAsleep(int streetID, int carIndex) {
+        long nextTick = getCrossingUpdater().getCurrentTick() + 1;
+        long passableTick = getCrossingUpdater().findNextPassableTick(streetID, nextTick);
+        if (passableTick > nextTick) {
+            scheduleTimer(streetID, Math.min(passableTick, lastTimersTick + WHEEL_SLOTS - 1));
+            return true;
+        }
+        int outgoingStreetID = getTopology().getNextStreetID(streetID, getCarStates().getCurrentDirection(carIndex));
+        if (outgoingStreetID != NetworkTopology.NONE && findPositionOfLastCarOnLane(outgoingStreetID) < 10) {
+            awaitStreet(streetID, outgoingStreetID);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds a street to the slot of the timing wheel at which it is woken
+     *
+     * @param streetID the id of the street
+     * @param wakeTick the tick at which the street is woken
+     */
+    private void scheduleTimer(int streetID, long wakeTick) {
+        int slot = (int) (wakeTick % WHEEL_SLOTS);
+        wakeTicks[streetID] = wakeTick;
+        timerSlots[slot] = addStreetID(timerSlots[slot], timerSlotsSizes[slot], streetID);
+        timerSlotsSizes[slot]++;
+    }
+
+    /**
+     * Lets a street wait until the last car of another street changes its position
+     *
+     * @param streetID        the id of the waiting street
+     * @param awaitedStreetID the id of the street whose last car is awaited
+     */
+    private void awaitStreet(int streetID, int awaitedStreetID) {
+        awaitedStreetIDs[streetID] = awaitedStreetID;
+        waitingStreetIDs[awaitedStreetID]
+                = addStreetID(waitingStreetIDs[awaitedStreetID], waitingStreetsCounts[awaitedStreetID], streetID);
+        waitingStreetsCounts[awaitedStreetID]++;
+    }
+
+    /**
+     * Adds a street id behind the used part of an array, the array grows if it is full
+     *
+     * @param streetIDs the array of street ids (null if there is none yet)
+     * @param size      the number of street ids in the array
+     * @param streetID  the street id to be added
+     * @return the array containing the added street id
+     */
+    private static int[] addStreetID(int[] streetIDs, int size, int streetID) {
+        int[] grownStreetIDs = streetIDs;
+        if (grownStreetIDs == null) {
+            grownStreetIDs = new int[4];
+        } else if (size == grownStreetIDs.length) {
+            grownStreetIDs = Arrays.copyOf(grownStreetIDs, size * 2);
+        }
+        grownStreetIDs[size] = streetID;
+        return grownStreetIDs;
+    }
+
+    /**
+     * Wakes the streets whose timers have expired until the current tick (every slot is checked if more ticks than
+     * slots have passed since the last call)
+     *
+     * @param currentTick the current tick
+     */
+    private void fireTimers(long currentTick) {
+        long firstTick = Math.max(lastTimersTick + 1, currentTick - WHEEL_SLOTS + 1);
+        for (long tick = firstTick; tick <= currentTick; tick++) {
+            int slot = (int) (tick % WHEEL_SLOTS);
+            for (int i = 0; i < timerSlotsSizes[slot]; i++) {
+                int streetID = timerSlots[slot][i];
+                // Entries of streets which were rescheduled in the meantime are dropped
+                if (wakeTicks[streetID] != NONE && wakeTicks[streetID] <= currentTick) {
+                    wakeStreet(streetID);
+                }
+            }
+            timerSlotsSizes[slot] = 0;
+        }
+        this.lastTimersTick = currentTick;
+    }
+
+    /**
+     * Wakes every street waiting for the last car of a street
+     *
+     * @param streetID the id of the street whose last car has changed
+     */
+    private void wakeWaitingStreets(int streetID) {
+        for (int i = 0; i < waitingStreetsCounts[streetID]; i++) {
+            int waitingStreetID = waitingStreetIDs[streetID][i];
+            if (awaitedStreetIDs[waitingStreetID] == streetID) {
+                wakeStreet(waitingStreetID);
+            }
+        }
+        waitingStreetsCounts[streetID] = 0;
+    }
+
+    /**
+     * Wakes every sleeping car of a street
+     *
+     * @param streetID the id of the street
+     */
+    private void wakeStreet(int streetID) {
+        sleepingCarsCounts[streetID] = 0;
+        wakeTicks[streetID] = NONE;
+        awaitedStreetIDs[streetID] = NONE;
+        activeStreets.set(streetID);
+    }
+
+    /**
+     * Wakes the street onto which a car has turned and every street waiting for its last car
+     *
+     * @param streetID the id of the street onto which the car has turned
+     */
+    @Override
+    protected void carTurnedOntoStreet(int streetID) {
+        activeStreets.set(streetID);
+        wakeWaitingStreets(streetID);
+    }
+}
@@ -0,0 +1,203 @@
+package src.edu.kit.kastel.trafficsimulation.trafficUpdaters;
+
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Lane;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class represents a street updater which updates the streets on multiple threads. The streets whose first car
+ * may turn at a crossing are updated afterwards in the order of the sequential street updater, so the result of a
+ * tick is the same as the result of {@link StreetUpdater}.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class ParallelStreetUpdater extends StreetUpdater {
+    /**
+     * Maximal number of streets updated by a single task
+     */
+    private static final int STREETS_PER_TASK = 64;
+    /**
+     * Maximal number of seconds the calling thread helps the pool before it checks again if the tick is finished
+     */
+    private static final long QUIESCENCE_TIMEOUT_SECONDS = 1;
+    /**
+     * Pool of the threads updating the streets
+     */
+    private final ForkJoinPool forkJoinPool;
+    /**
+     * Array of booleans representing the streets which are updated after the parallel phase
+     */
+    private boolean[] streetsDeferred = new boolean[0];
+    /**
+     * Array of booleans representing the streets which were updated during the parallel phase
+     */
+    private boolean[] streetsUpdatedAhead = new boolean[0];
+    /**
+     * Array containing the position of the last car on every street at the beginning of the tick
+     */
+    private int[] positionsOfLastCars = new int[0];
+    /**
+     * Task updating all streets, its subtasks are created once per network and reused in every tick
+     */
+    private StreetsUpdateTask rootTask;
+
+    /**
+     * Constructor of the parallel street updater
+     *
+     * @param threadsCount the number of threads updating the streets
+     */
+    public ParallelStreetUpdater(int threadsCount) {
+        this.forkJoinPool = new ForkJoinPool(threadsCount);
+    }
+
+    /**
+     * Updates all streets whose cars stay on them in parallel and afterwards the remaining streets in order
+     */
+    @Override
+    public void updateStreets() {
+        Street[] streetsArray = getStreetsArray();
+        if (streetsDeferred.length != streetsArray.length) {
+            this.streetsDeferred = new boolean[streetsArray.length];
+            this.streetsUpdatedAhead = new boolean[streetsArray.length];
+            this.positionsOfLastCars = new int[streetsArray.length];
+            this.rootTask = new StreetsUpdateTask(0, streetsArray.length);
+        } else {
+            rootTask.reinitializeSubtasks();
+        }
+        setAnyCarMoved(false);
+        // The calling thread helps the pool instead of blocking in invoke(), which would allocate a wait node
+        forkJoinPool.execute(rootTask);
+        while (!rootTask.isDone()) {
+            forkJoinPool.awaitQuiescence(QUIESCENCE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        rootTask.join();
+        for (int i = 0; i < streetsArray.length; i++) {
+            if (streetsDeferred[i]) {
+                updateStreet(streetsArray[i]);
+            }
+        }
+        getCarStates().resetCarsHaveMoved();
+    }
+
+    /**
+     * Finds the position of the last car on a street onto which a car is about to turn. If the street was updated
+     * ahead of its turn in the parallel phase, the position at the beginning of the tick is used, unless another car
+     * has already turned onto the street during this tick.
+     *
+     * @param streetID        the id of the street onto which the car turns
+     * @param currentStreetID the id of the street on which the car currently drives
+     * @return the position of the last car on the street
+     */
+    @Override
+    protected int findPositionOfLastCar(int streetID, int currentStreetID) {
+        Lane lane = getLanesArray()[streetID];
+        if (streetID > currentStreetID && streetsUpdatedAhead[streetID]
+                && (lane.size() == 0 || !getCarStates().getCarHasMoved(lane.getLast()))) {
+            return positionsOfLastCars[streetID];
+        }
+        return findPositionOfLastCarOnLane(streetID);
+    }
+
+    /**
+     * Updates a single street in the parallel phase or marks it to be updated afterwards
+     *
+     * @param street the street to be updated
+     */
+    private void updateStreetAhead(Street street) {
+        int streetID = street.getId();
+        if (firstCarMayTurn(street)) {
+            streetsDeferred[streetID] = true;
+            streetsUpdatedAhead[streetID] = false;
+        } else {
+            streetsDeferred[streetID] = false;
+            streetsUpdatedAhead[streetID] = true;
+            positionsOfLastCars[streetID] = findPositionOfLastCarOnLane(streetID);
+            updateStreet(street);
+        }
+    }
+
+    /**
+     * Shuts the threads of the updater down
+     */
+    public void shutdown() {
+        forkJoinPool.shutdown();
+    }
+
+    /**
+     * This class represents the task of updating a range of streets, larger ranges are split between two subtasks
+     *
+     * @author unkno
+     * @version 1.0
+     */
+    private final class StreetsUpdateTask extends RecursiveAction {
+        /**
+         * Version of the serialized form, the task is never serialized
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * Index of the first street to be updated
+         */
+        private final int from;
+        /**
+         * Index after the last street to be updated
+         */
+        private final int to;
+        /**
+         * Subtask updating the first half of the range, null if the range isn't split
+         */
+        private final StreetsUpdateTask firstHalfTask;
+        /**
+         * Subtask updating the second half of the range, null if the range isn't split
+         */
+        private final StreetsUpdateTask secondHalfTask;
+
+        /**
+         * Constructor of the task, creates the subtasks for the whole range
+         *
+         * @param from index of the first street to be updated
+         * @param to   index after the last street to be updated
+         */
+        private StreetsUpdateTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+            if (to - from <= STREETS_PER_TASK) {
+                this.firstHalfTask = null;
+                this.secondHalfTask = null;
+            } else {
+                int middle = (from + to) >>> 1;
+                this.firstHalfTask = new StreetsUpdateTask(from, middle);
+                this.secondHalfTask = new StreetsUpdateTask(middle, to);
+            }
+        }
+
+        /**
+         * Resets the task and all its subtasks, so they can be invoked again in the next tick
+         */
+        private void reinitializeSubtasks() {
+            reinitialize();
+            if (firstHalfTask != null) {
+                firstHalfTask.reinitializeSubtasks();
+                secondHalfTask.reinitializeSubtasks();
+            }
+        }
+
+        /**
+         * Updates the range of streets or invokes the two subtasks
+         */
+        @Override
+        protected void compute() {
+            if (firstHalfTask == null) {
+                Street[] streetsArray = getStreetsArray();
+                for (int i = from; i < to; i++) {
+                    updateStreetAhead(streetsArray[i]);
+                }
+            } else {
+                invokeAll(firstHalfTask, secondHalfTask);
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package src.edu.kit.kastel.trafficsimulation.trafficUpdaters;
 
-import src.edu.kit.kastel.trafficsimulation.trafficObjects.Car;
-import src.edu.kit.kastel.trafficsimulation.trafficObjects.Crossing;
+import src.edu.kit.kastel.trafficsimulation.metrics.SimulationStatistics;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.CarStateStore;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.Lane;
+import src.edu.kit.kastel.trafficsimulation.trafficObjects.NetworkTopology;
 import src.edu.kit.kastel.trafficsimulation.trafficObjects.Street;
 
 /**
@@ -12,57 +14,84 @@
  */
 public class StreetUpdater {
     /**
-     * Local instance of the array of cars sorted by id
+     * Local instance of the store of car states sorted by id
      */
-    private Car[] carsArray;
+    private CarStateStore carStates;
     /**
      * Local instance of the array of streets sorted by id
      */
     private Street[] streetsArray;
     /**
-     * Local instance of the array of crossings sorted by id
+     * Local instance of the crossing updater computing the green phases of the crossings
      */
-    private Crossing[] crossingsArray;
+    private CrossingUpdater crossingUpdater;
     /**
-     * Integer representing the id of the next car to be moved
+     * Local instance of the array of lanes sorted by street id
      */
-    private int carToMoveId;
+    private Lane[] lanesArray;
+    /**
+     * Local instance of the network's topology
+     */
+    private NetworkTopology topology;
+    /**
+     * Boolean representing if any car has moved during the last tick
+     */
+    private boolean anyCarMoved;
+    /**
+     * Statistics counting the updated cars, null if no statistics are collected
+     */
+    private SimulationStatistics statistics;
 
     /**
      * Iterates through all streets and calls a function to update every car (beginning from the end of the street)
      */
     public void updateStreets() {
+        this.anyCarMoved = false;
         for (Street street : streetsArray) {
-            while (findNextCarToUpdate(street.getId()) != -1) {
-                for (Car car : carsArray) {
-                    if (car.getId() == carToMoveId) {
-                        updateCar(car, street);
-                    }
-                }
-            }
+            updateStreet(street);
         }
-        for (Car car : carsArray) {
-            car.setCarHasMoved(false);
+        carStates.resetCarsHaveMoved();
+    }
+
+    /**
+     * Updates every car on a street which hasn't moved yet (beginning from the end of the street)
+     *
+     * @param street the street to be updated
+     */
+    protected void updateStreet(Street street) {
+        updateStreet(street, 0);
+    }
+
+    /**
+     * Updates every car on a street which hasn't moved yet, beginning with the car at the specified lane index
+     *
+     * @param street         the street to be updated
+     * @param firstLaneIndex the lane index of the first car to be updated
+     */
+    protected void updateStreet(Street street, int firstLaneIndex) {
+        Lane lane = lanesArray[street.getId()];
+        int laneIndex = firstLaneIndex;
+        while (laneIndex < lane.size() && !carStates.getCarHasMoved(lane.get(laneIndex))) {
+            laneIndex = updateCar(lane, laneIndex, street);
         }
     }
 
     /**
-     * Finds the next car to be updated according to its position and if it's moved
+     * Checks if the first car of a street will reach the crossing at the street's end during this tick while the
+     * crossing lets it pass (only then the update of the street depends on other streets)
      *
-     * @param streetID the id of the current street
-     * @return id of the car to be moved
+     * @param street the street to be checked
+     * @return true if the first car of the street may turn onto another street
      */
-    private int findNextCarToUpdate(int streetID) {
-        int highestPosition = 0;
-        this.carToMoveId = -1;
-        for (Car car : carsArray) {
-            if (car.getCurrentStreet() == streetID && !car.getCarHasMoved()
-                    && car.getCurrentPosition() >= highestPosition) {
-                highestPosition = car.getCurrentPosition();
-                this.carToMoveId = car.getId();
-            }
+    protected boolean firstCarMayTurn(Street street) {
+        Lane lane = lanesArray[street.getId()];
+        if (lane.size() == 0) {
+            return false;
         }
-        return this.carToMoveId;
+        int carIndex = lane.get(0);
+        return calculateNewCarSpeed(carIndex, street.getSpeedLimit())
+                > street.getLength() - carStates.getCurrentPosition(carIndex)
+                && crossingUpdater.crossingLetsStreetPass(street.getId());
     }
 
     /**
@@ -71,97 +100,162 @@ private int findNextCarToUpdate(int streetID) {
      * 2- the car overruns or overruns if it can
      * 3- the car drives as much as possible
      *
-     * @param car    car to be updated
-     * @param street street on which the car is positioned
+     * @param lane      lane of the street on which the car is positioned
+     * @param laneIndex index of the car to be updated on the lane
+     * @param street    street on which the car is positioned
+     * @return the lane index of the next car to be updated
      */
-    private void updateCar(Car car, Street street) {
-        car.setCurrentSpeed(calculateNewCarSpeed(car, street.getSpeedLimit()));
-        int initialDistanceToMove = car.getCurrentSpeed();
-        int remainingDistanceToMove = car.getCurrentSpeed();
+    private int updateCar(Lane lane, int laneIndex, Street street) {
+        int carIndex = lane.get(laneIndex);
+        int nextLaneIndex = laneIndex + 1;
+        carStates.setCurrentSpeed(carIndex, calculateNewCarSpeed(carIndex, street.getSpeedLimit()));
+        int initialDistanceToMove = carStates.getCurrentSpeed(carIndex);
+        int remainingDistanceToMove = carStates.getCurrentSpeed(carIndex);
         // Finds position of car in front
-        int positionOfCarInFront = findPositionOfCarInFront(car.getCurrentPosition(), street);
+        int positionOfCarInFront = findPositionOfCarInFront(lane, laneIndex - 1, street);
         // The car moves as much as possible
-        remainingDistanceToMove = adjustCarPosition(remainingDistanceToMove, positionOfCarInFront, car);
-        // Finds position of second car in front
-        int positionOfSecondCarInFront = findPositionOfCarInFront(positionOfCarInFront, street);
-        if (remainingDistanceToMove >= 20 && street.getType() == 2
-                && positionOfSecondCarInFront - positionOfCarInFront >= 20) {
+        remainingDistanceToMove = adjustCarPosition(remainingDistanceToMove, positionOfCarInFront, carIndex);
+        // Finds position of second car in front only if the car may overrun
+        int positionOfSecondCarInFront = street.getLength() + 10;
+        boolean carOverruns = false;
+        if (remainingDistanceToMove >= 20 && street.getType() == 2) {
+            positionOfSecondCarInFront = findPositionOfCarInFront(lane, laneIndex - 2, street);
+            carOverruns = positionOfSecondCarInFront - positionOfCarInFront >= 20;
+        }
+        if (carOverruns) {
             // The car overruns
             remainingDistanceToMove -= 20;
-            car.setCurrentPosition(positionOfCarInFront + 10);
-            // The car moves as much as possible if the car overran
-            remainingDistanceToMove = adjustCarPosition(remainingDistanceToMove, positionOfSecondCarInFront, car);
-        } else if (car.getCurrentPosition() == street.getLength() && remainingDistanceToMove > 0) {
-            // Finds crossing at the street's end
-            Crossing currentCrossing = new Crossing(0, 0);
-            for (Crossing crossing : crossingsArray) {
-                if (crossing.getId() == street.getEnd()) {
-                    currentCrossing = crossing;
-                }
+            carStates.setCurrentPosition(carIndex, positionOfCarInFront + 10);
+            lane.swapWithCarInFront(laneIndex);
+            if (statistics != null) {
+                statistics.countCarOvertook();
             }
-            if (currentCrossing.getIncomingStreetsIDs().get(currentCrossing.getCurrentGreenPhase()) == street.getId()
-                    || currentCrossing.getTicksCount() == 0) {
-                int outgoingStreetID;
-                int positionOfClosestCarOnNewStreet;
+            // The car moves as much as possible if the car overran
+            remainingDistanceToMove = adjustCarPosition(remainingDistanceToMove, positionOfSecondCarInFront, carIndex);
+        } else if (carStates.getCurrentPosition(carIndex) == street.getLength() && remainingDistanceToMove > 0) {
+            if (crossingUpdater.crossingLetsStreetPass(street.getId())) {
                 // Gets the id of the next street according to car's direction
-                if (car.getCurrentDirection() > currentCrossing.getOutgoingStreetsIDs().size() - 1) {
-                    outgoingStreetID = currentCrossing.getOutgoingStreetsIDs().get(0);
-                } else {
-                    outgoingStreetID = currentCrossing.getOutgoingStreetsIDs().get(car.getCurrentDirection());
-                }
+                int outgoingStreetID
+                        = topology.getNextStreetID(street.getId(), carStates.getCurrentDirection(carIndex));
                 // Finds position of the closest car on the new street
-                positionOfClosestCarOnNewStreet = findPositionOfCarInFront(-1, streetsArray[outgoingStreetID]);
+                int positionOfClosestCarOnNewStreet = findPositionOfLastCar(outgoingStreetID, street.getId());
                 if (positionOfClosestCarOnNewStreet >= 10) {
-                    // The car turns
-                    car.setCurrentStreet(outgoingStreetID);
-                    car.setCurrentPosition(0);
-                    if (car.getCurrentDirection() < 3) {
-                        car.setCurrentDirection(car.getCurrentDirection() + 1);
+                    // The car turns and mustn't be updated again on the new street during this tick
+                    lane.remove(laneIndex);
+                    lanesArray[outgoingStreetID].addLast(carIndex);
+                    carTurnedOntoStreet(outgoingStreetID);
+                    if (statistics != null) {
+                        statistics.countCarTurned();
+                    }
+                    carStates.setCarHasMoved(carIndex, true);
+                    this.anyCarMoved = true;
+                    carStates.setCurrentStreet(carIndex, outgoingStreetID);
+                    carStates.setCurrentPosition(carIndex, 0);
+                    if (carStates.getCurrentDirection(carIndex) < 3) {
+                        carStates.setCurrentDirection(carIndex, carStates.getCurrentDirection(carIndex) + 1);
                     } else {
-                        car.setCurrentDirection(0);
+                        carStates.setCurrentDirection(carIndex, 0);
                     }
                     // The car moves as much as possible if the car turned
                     remainingDistanceToMove
-                            = adjustCarPosition(remainingDistanceToMove, positionOfClosestCarOnNewStreet, car);
+                            = adjustCarPosition(remainingDistanceToMove, positionOfClosestCarOnNewStreet, carIndex);
+                    nextLaneIndex = laneIndex;
                 }
+            } else if (statistics != null) {
+                statistics.countCarBlockedAtRed();
             }
         }
+        // A turning car has moved even if it stays at the beginning of the new street
+        if (statistics != null && (initialDistanceToMove != remainingDistanceToMove || nextLaneIndex == laneIndex)) {
+            statistics.countCarMoved();
+        }
         // Resets the car's speed if it hasn't moved at all
         if (initialDistanceToMove == remainingDistanceToMove) {
-            car.setCurrentSpeed(0);
+            carStates.setCurrentSpeed(carIndex, 0);
+        } else if (!anyCarMoved) {
+            // Only written once per tick, the streets may be updated on multiple threads
+            this.anyCarMoved = true;
+        }
+        return nextLaneIndex;
+    }
+
+    /**
+     * Called after a car has turned onto a street and was added behind its last car
+     *
+     * @param streetID the id of the street onto which the car has turned
+     */
+    protected void carTurnedOntoStreet(int streetID) {
+    }
+
+    /**
+     * Finds the first tick (not before the current one) at which a car may move, assuming that no car has moved
+     * during the last tick. Until then every car stays blocked behind the car in front of it, by a red light or by
+     * the last car of the street it would turn onto, so the ticks in between change nothing but the green phases.
+     *
+     * @return the first tick at which a car may move or {@link Long#MAX_VALUE} if no car will ever move again
+     */
+    public long findNextUnblockingTick() {
+        long nextUnblockingTick = Long.MAX_VALUE;
+        for (Street street : streetsArray) {
+            Lane lane = lanesArray[street.getId()];
+            if (lane.size() == 0 || carStates.getCurrentPosition(lane.get(0)) != street.getLength()) {
+                continue;
+            }
+            int outgoingStreetID
+                    = topology.getNextStreetID(street.getId(), carStates.getCurrentDirection(lane.get(0)));
+            if (findPositionOfLastCarOnLane(outgoingStreetID) >= 10) {
+                nextUnblockingTick = Math.min(nextUnblockingTick,
+                        crossingUpdater.findNextPassableTick(street.getId(), crossingUpdater.getCurrentTick()));
+            }
         }
-        car.setCarHasMoved(true);
+        return nextUnblockingTick;
+    }
+
+    /**
+     * Finds the position of the last car on a street onto which a car is about to turn
+     *
+     * @param streetID        the id of the street onto which the car turns
+     * @param currentStreetID the id of the street on which the car currently drives
+     * @return the position of the last car on the street
+     */
+    protected int findPositionOfLastCar(int streetID, int currentStreetID) {
+        return findPositionOfLastCarOnLane(streetID);
+    }
+
+    /**
+     * Finds the position of the last car on the lane of a street
+     *
+     * @param streetID the id of the street
+     * @return the position of the last car on the street
+     */
+    protected int findPositionOfLastCarOnLane(int streetID) {
+        Lane lane = lanesArray[streetID];
+        return findPositionOfCarInFront(lane, lane.size() - 1, streetsArray[streetID]);
     }
 
     /**
-     * @param car        car which speed is calculated
+     * @param carIndex   index of the car which speed is calculated
      * @param speedLimit speed limit of the current street
      * @return new speed of the car
      */
-    private int calculateNewCarSpeed(Car car, int speedLimit) {
-        return Math.min(car.getCurrentSpeed() + car.getAcceleration(),
-                Math.min(car.getMaxSpeed(), speedLimit));
+    private int calculateNewCarSpeed(int carIndex, int speedLimit) {
+        return Math.min(carStates.getCurrentSpeed(carIndex) + carStates.getAcceleration(carIndex),
+                Math.min(carStates.getMaxSpeed(carIndex), speedLimit));
     }
 
     /**
-     * Finds the position of the car in front of the current one
+     * Finds the position of a car in front of the current one
      *
-     * @param carPosition current car
-     * @param street      street on which the car currently drives
+     * @param lane      lane of the street on which the car currently drives
+     * @param laneIndex index of the car in front on the lane (negative if there is none)
+     * @param street    street on which the car currently drives
      * @return the position of the car in front of the current one
      */
-    private int findPositionOfCarInFront(int carPosition, Street street) {
-        int closestPosition = street.getLength() + 10;
-        for (Car car : carsArray) {
-            if (car.getCurrentStreet() == street.getId()
-                    && car.getCurrentPosition() > carPosition && car.getCurrentPosition() < closestPosition) {
-                closestPosition = car.getCurrentPosition();
-            }
-        }
-        if (closestPosition == street.getLength() + 1) {
-            return 0;
+    private int findPositionOfCarInFront(Lane lane, int laneIndex, Street street) {
+        if (laneIndex < 0) {
+            return street.getLength() + 10;
         }
-        return closestPosition;
+        return carStates.getCurrentPosition(lane.get(laneIndex));
     }
 
     /**
@@ -169,37 +263,101 @@ private int findPositionOfCarInFront(int carPosition, Street street) {
      *
      * @param remainingDistanceToMove the distance the car can drive during this tick
      * @param positionOfCarInFront    position of the car in front of the given one
-     * @param car                     car to be driven
+     * @param carIndex                index of the car to be driven
      * @return the remaining distance which the car can still move
      */
-    private int adjustCarPosition(int remainingDistanceToMove, int positionOfCarInFront, Car car) {
+    private int adjustCarPosition(int remainingDistanceToMove, int positionOfCarInFront, int carIndex) {
         int newRemainingDistanceToMove = remainingDistanceToMove;
-        if (remainingDistanceToMove >= positionOfCarInFront - 10 - car.getCurrentPosition()) {
-            newRemainingDistanceToMove -= (positionOfCarInFront - 10 - car.getCurrentPosition());
-            car.setCurrentPosition(positionOfCarInFront - 10);
+        int currentPosition = carStates.getCurrentPosition(carIndex);
+        if (remainingDistanceToMove >= positionOfCarInFront - 10 - currentPosition) {
+            newRemainingDistanceToMove -= (positionOfCarInFront - 10 - currentPosition);
+            carStates.setCurrentPosition(carIndex, positionOfCarInFront - 10);
         } else {
-            car.setCurrentPosition(car.getCurrentPosition() + remainingDistanceToMove);
+            carStates.setCurrentPosition(carIndex, currentPosition + remainingDistanceToMove);
             newRemainingDistanceToMove = 0;
         }
         return newRemainingDistanceToMove;
     }
 
     /**
-     * Getter for the local array of cars
+     * Getter for the state of the cars' movement during the last tick
      *
-     * @return local array of cars
+     * @return true if any car has moved during the last tick
      */
-    public Car[] getCarsArray() {
-        return carsArray;
+    public boolean getAnyCarMoved() {
+        return anyCarMoved;
     }
 
     /**
-     * Setter for the array of cars
+     * Sets the state of the cars' movement at the beginning of a tick
      *
-     * @param carsArray current array of cars in the network
+     * @param anyCarMoved new state of the cars' movement
      */
-    public void setCarsArray(Car[] carsArray) {
-        this.carsArray = carsArray;
+    protected void setAnyCarMoved(boolean anyCarMoved) {
+        this.anyCarMoved = anyCarMoved;
+    }
+
+    /**
+     * Getter for the local store of car states
+     *
+     * @return local store of car states
+     */
+    protected CarStateStore getCarStates() {
+        return carStates;
+    }
+
+    /**
+     * Getter for the local array of streets
+     *
+     * @return local array of streets
+     */
+    protected Street[] getStreetsArray() {
+        return streetsArray;
+    }
+
+    /**
+     * Getter for the local crossing updater
+     *
+     * @return local crossing updater
+     */
+    protected CrossingUpdater getCrossingUpdater() {
+        return crossingUpdater;
+    }
+
+    /**
+     * Getter for the local topology of the network
+     *
+     * @return local topology of the network
+     */
+    protected NetworkTopology getTopology() {
+        return topology;
+    }
+
+    /**
+     * Getter for the local array of lanes
+     *
+     * @return local array of lanes
+     */
+    protected Lane[] getLanesArray() {
+        return lanesArray;
+    }
+
+    /**
+     * Setter for the store of car states
+     *
+     * @param carStates current store of car states in the network
+     */
+    public void setCarStates(CarStateStore carStates) {
+        this.carStates = carStates;
+    }
+
+    /**
+     * Setter for the statistics counting the updated cars
+     *
+     * @param statistics new statistics or null to collect no statistics
+     */
+    public void setStatistics(SimulationStatistics statistics) {
+        this.statistics = statistics;
     }
 
     /**
@@ -212,11 +370,29 @@ public void setStreetsArray(Street[] streetsArray) {
     }
 
     /**
-     * Setter for the array of crossings
+     * Setter for the crossing updater
+     *
+     * @param crossingUpdater crossing updater computing the green phases of the crossings in the network
+     */
+    public void setCrossingUpdater(CrossingUpdater crossingUpdater) {
+        this.crossingUpdater = crossingUpdater;
+    }
+
+    /**
+     * Setter for the network's topology
+     *
+     * @param topology current topology of the network
+     */
+    public void setTopology(NetworkTopology topology) {
+        this.topology = topology;
+    }
+
+    /**
+     * Setter for the array of lanes
      *
-     * @param crossingsArray current array of crossings in the network
+     * @param lanesArray current array of lanes in the network
      */
-    public void setCrossingsArray(Crossing[] crossingsArray) {
-        this.crossingsArray = crossingsArray;
+    public void setLanesArray(Lane[] lanesArray) {
+        this.lanesArray = lanesArray;
     }
 }
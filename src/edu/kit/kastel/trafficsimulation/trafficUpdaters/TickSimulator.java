@@ -0,0 +1,192 @@
+package src.edu.kit.kastel.trafficsimulation.trafficUpdaters;
+
+import src.edu.kit.kastel.trafficsimulation.metrics.SimulateBatchEvent;
+import src.edu.kit.kastel.trafficsimulation.metrics.SimulationStatistics;
+import src.edu.kit.kastel.trafficsimulation.metrics.TickEvent;
+import src.edu.kit.kastel.trafficsimulation.metrics.TrajectoryRecorder;
+
+/**
+ * This class simulates ticks of the network by calling the street and crossing updaters. Ticks in which every car
+ * stays blocked are skipped, and if cycle detection is enabled, whole cycles of the network's state are skipped unless
+ * trajectories are recorded, as the cars keep moving during the cycles.
+ * While a flight recording records the events, every batch of ticks and every hundredth updated tick is reported to
+ * it, otherwise neither events are created nor ticks timed.
+ *
+ * @author unkno
+ * @version 1.0
+ */
+public class TickSimulator {
+    /**
+     * Number of updated ticks of which one is timed for the flight recorder
+     */
+    private static final int TICK_SAMPLING_INTERVAL = 100;
+    /**
+     * Object that updates the state of the crossings
+     */
+    private final CrossingUpdater crossingUpdater;
+    /**
+     * Object that updates the state of the streets
+     */
+    private StreetUpdater streetUpdater;
+    /**
+     * Object that detects cycles in the state of the network, null if cycle detection is disabled
+     */
+    private CycleDetector cycleDetector;
+    /**
+     * Statistics recording the latencies of the updates, null if no statistics are collected
+     */
+    private SimulationStatistics statistics;
+    /**
+     * Recorder of the cars' trajectories, null if no trajectories are recorded
+     */
+    private TrajectoryRecorder trajectoryRecorder;
+    /**
+     * Number of updated ticks until the next tick is timed for the flight recorder
+     */
+    private int ticksUntilSample = 1;
+    /**
+     * Number of ticks skipped during the current batch
+     */
+    private long batchTicksSkipped;
+
+    /**
+     * Constructor of the tick simulator
+     *
+     * @param streetUpdater   object that updates the state of the streets
+     * @param crossingUpdater object that updates the state of the crossings
+     */
+    public TickSimulator(StreetUpdater streetUpdater, CrossingUpdater crossingUpdater) {
+        this.streetUpdater = streetUpdater;
+        this.crossingUpdater = crossingUpdater;
+    }
+
+    /**
+     * Simulates the specified number of ticks
+     *
+     * @param ticksCount the number of ticks to be simulated
+     */
+    public void simulateTicks(long ticksCount) {
+        SimulateBatchEvent batchEvent = null;
+        if (SimulateBatchEvent.isRecorded()) {
+            batchEvent = new SimulateBatchEvent();
+            batchEvent.begin();
+        }
+        // Recordings started during the batch sample ticks from the next batch on
+        boolean ticksSampled = TickEvent.isRecorded();
+        long startTick = crossingUpdater.getCurrentTick();
+        this.batchTicksSkipped = 0;
+        long ticksLeft = ticksCount;
+        while (ticksLeft > 0) {
+            boolean tickSampled = ticksSampled && --ticksUntilSample <= 0;
+            if (statistics == null && !tickSampled) {
+                streetUpdater.updateStreets();
+                crossingUpdater.updateCrossings();
+            } else {
+                updateTimedTick(tickSampled);
+            }
+            if (trajectoryRecorder != null) {
+                trajectoryRecorder.record(crossingUpdater.getCurrentTick(), streetUpdater.getCarStates());
+            }
+            ticksLeft--;
+            if (ticksLeft > 0 && !streetUpdater.getAnyCarMoved()) {
+                // Skips the ticks in which every car stays blocked
+                long ticksSkipped = Math.min(ticksLeft,
+                        streetUpdater.findNextUnblockingTick() - crossingUpdater.getCurrentTick());
+                skipTicks(ticksSkipped);
+                ticksLeft -= ticksSkipped;
+            }
+            // Cycles aren't skipped while recording, the trajectories would miss the cars' movements within them
+            if (ticksLeft > 0 && cycleDetector != null && trajectoryRecorder == null) {
+                long cycleLength = cycleDetector.observe(crossingUpdater.getCurrentTick());
+                if (cycleLength > 0) {
+                    // Skips whole cycles, the state after them is the same as now
+                    long ticksSkipped = ticksLeft / cycleLength * cycleLength;
+                    skipTicks(ticksSkipped);
+                    ticksLeft -= ticksSkipped;
+                }
+            }
+        }
+        if (batchEvent != null) {
+            batchEvent.finish(ticksCount, batchTicksSkipped, startTick, streetUpdater.getCarStates().size(),
+                    streetUpdater.getStreetsArray().length);
+        }
+    }
+
+    /**
+     * Updates the streets and crossings for one tick and records the durations of the updates in the statistics and,
+     * if the tick is sampled, in the flight recorder
+     *
+     * @param tickSampled true if the tick is reported to the flight recorder
+     */
+    private void updateTimedTick(boolean tickSampled) {
+        TickEvent tickEvent = null;
+        if (tickSampled) {
+            this.ticksUntilSample = TICK_SAMPLING_INTERVAL;
+            tickEvent = new TickEvent();
+            tickEvent.begin();
+        }
+        long tick = crossingUpdater.getCurrentTick();
+        long startNanos = System.nanoTime();
+        streetUpdater.updateStreets();
+        long streetsUpdatedNanos = System.nanoTime();
+        crossingUpdater.updateCrossings();
+        long crossingsUpdatedNanos = System.nanoTime();
+        if (statistics != null) {
+            statistics.recordStreetUpdate(streetsUpdatedNanos - startNanos);
+            statistics.recordCrossingUpdate(crossingsUpdatedNanos - streetsUpdatedNanos);
+        }
+        if (tickEvent != null) {
+            tickEvent.finish(tick, streetsUpdatedNanos - startNanos, crossingsUpdatedNanos - streetsUpdatedNanos,
+                    streetUpdater.getCarStates().size(), streetUpdater.getStreetsArray().length);
+        }
+    }
+
+    /**
+     * Advances the global tick without updating the streets
+     *
+     * @param ticksSkipped the number of ticks to be skipped
+     */
+    private void skipTicks(long ticksSkipped) {
+        crossingUpdater.setCurrentTick(crossingUpdater.getCurrentTick() + ticksSkipped);
+        this.batchTicksSkipped += ticksSkipped;
+        if (statistics != null) {
+            statistics.countTicksSkipped(ticksSkipped);
+        }
+    }
+
+    /**
+     * Setter for the street updater
+     *
+     * @param streetUpdater new object that updates the state of the streets
+     */
+    public void setStreetUpdater(StreetUpdater streetUpdater) {
+        this.streetUpdater = streetUpdater;
+    }
+
+    /**
+     * Setter for the cycle detector
+     *
+     * @param cycleDetector new object that detects cycles in the state of the network, null to disable detection
+     */
+    public void setCycleDetector(CycleDetector cycleDetector) {
+        this.cycleDetector = cycleDetector;
+    }
+
+    /**
+     * Setter for the statistics
+     *
+     * @param statistics new statistics recording the latencies of the updates, null to collect no statistics
+     */
+    public void setStatistics(SimulationStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    /**
+     * Setter for the trajectory recorder
+     *
+     * @param trajectoryRecorder new recorder of the cars' state after every updated tick, null to record nothing
+     */
+    public void setTrajectoryRecorder(TrajectoryRecorder trajectoryRecorder) {
+        this.trajectoryRecorder = trajectoryRecorder;
+    }
+}